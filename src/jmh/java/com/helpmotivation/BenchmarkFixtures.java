@@ -0,0 +1,102 @@
+package com.helpmotivation;
+
+import net.runelite.api.Client;
+import net.runelite.api.Experience;
+import net.runelite.api.Skill;
+import net.runelite.client.hiscore.HiscoreResult;
+import net.runelite.client.hiscore.HiscoreSkill;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Proxy;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Canned data shared by the benchmarks: a stub {@link Client} reporting a fixed mid-game account
+ * and a matching {@link HiscoreResult}.
+ */
+final class BenchmarkFixtures
+{
+    private BenchmarkFixtures()
+    {
+    }
+
+    static int level(Skill skill)
+    {
+        // Spread levels between 40 and 99 so the non-99 index has real work to do
+        return 40 + (skill.ordinal() * 37) % 60;
+    }
+
+    static int xp(Skill skill)
+    {
+        return Experience.getXpForLevel(level(skill)) + skill.ordinal() * 1_000;
+    }
+
+    static Client stubClient()
+    {
+        return (Client) Proxy.newProxyInstance(Client.class.getClassLoader(), new Class<?>[]{Client.class},
+            (proxy, method, args) ->
+            {
+                switch (method.getName())
+                {
+                    case "getRealSkillLevel":
+                    case "getBoostedSkillLevel":
+                        return level((Skill) args[0]);
+                    case "getSkillExperience":
+                        return xp((Skill) args[0]);
+                    default:
+                        return defaultValue(method.getReturnType());
+                }
+            });
+    }
+
+    private static Object defaultValue(Class<?> type)
+    {
+        if (!type.isPrimitive() || type == void.class)
+        {
+            return null;
+        }
+        if (type == boolean.class)
+        {
+            return false;
+        }
+        if (type == char.class)
+        {
+            return '\0';
+        }
+        // Widen a zero to whichever numeric primitive the method declares
+        return Array.get(Array.newInstance(type, 1), 0);
+    }
+
+    static HiscoreResult cannedResult()
+    {
+        Map<HiscoreSkill, net.runelite.client.hiscore.Skill> skills = new EnumMap<>(HiscoreSkill.class);
+        for (Skill skill : Skill.values())
+        {
+            HiscoreSkill hiscoreSkill = SkillMapping.toHiscoreSkill(skill);
+            if (hiscoreSkill != null)
+            {
+                skills.put(hiscoreSkill, new net.runelite.client.hiscore.Skill(
+                    100_000 + skill.ordinal() * 12_345, level(skill), xp(skill)));
+            }
+        }
+
+        HiscoreResult result = new HiscoreResult();
+        result.setPlayer("Zezima");
+        result.setSkills(skills);
+        return result;
+    }
+
+    static SkillTracker seededTracker(Client client)
+    {
+        SkillTracker tracker = new SkillTracker();
+        for (Skill skill : Skill.values())
+        {
+            if (skill != Skill.OVERALL)
+            {
+                tracker.update(skill, client.getRealSkillLevel(skill), client.getSkillExperience(skill));
+            }
+        }
+        return tracker;
+    }
+}
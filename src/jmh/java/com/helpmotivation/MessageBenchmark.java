@@ -0,0 +1,74 @@
+package com.helpmotivation;
+
+import net.runelite.api.Skill;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Message formatting: picking a random quote and rendering it with all placeholders.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MessageBenchmark
+{
+    @Param({"defaults", "placeholders", "hundreds"})
+    public String quoteSet;
+
+    private MotivationQuotes quotes;
+
+    @Setup
+    public void setUp()
+    {
+        quotes = new MotivationQuotes();
+        switch (quoteSet)
+        {
+            case "placeholders":
+                quotes.compile("{skill} {level}, rank {rank} ({rankDelta}), {xpTo99} XP / {percent}\n"
+                    + "{?rank:Rank %d.}{!rank:Unranked.} {?rankWeek:{rankWeek} this week}");
+                break;
+            case "hundreds":
+            {
+                StringBuilder sb = new StringBuilder();
+                for (int i = 0; i < 500; i++)
+                {
+                    sb.append("Quote ").append(i).append(" for {skill}: rank {rank}, {xpTo99} to go\n");
+                }
+                quotes.compile(sb.toString());
+                break;
+            }
+            default:
+                quotes.compile("");
+        }
+    }
+
+    @Benchmark
+    public String formatMessage()
+    {
+        return quotes.format(quotes.context(Skill.AGILITY, 52)
+            .xp(BenchmarkFixtures.xp(Skill.AGILITY))
+            .rank(1_234_567)
+            .rankDelta(-1_204));
+    }
+
+    @Benchmark
+    public String formatMessageNoRank()
+    {
+        return quotes.format(quotes.context(Skill.AGILITY, 52)
+            .xp(BenchmarkFixtures.xp(Skill.AGILITY)));
+    }
+}
@@ -0,0 +1,78 @@
+package com.helpmotivation;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Skill list rendering in the sidebar panel. Runs headless; the panel is driven directly rather
+ * than through the EDT, which only measures our own work and not Swing's event dispatch.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+@State(Scope.Benchmark)
+public class PanelBenchmark
+{
+    private HelpMotivationPanel panel;
+    private List<HelpMotivationPlugin.SkillData> skills;
+    private List<HelpMotivationPlugin.SkillData> reordered;
+    private List<HelpMotivationPlugin.SkillData> xpDrop;
+    private boolean flip;
+
+    @Setup
+    public void setUp()
+    {
+        panel = new HelpMotivationPanel(new HelpMotivationPlugin());
+
+        skills = BenchmarkFixtures.seededTracker(BenchmarkFixtures.stubClient()).getSnapshot().getNon99Skills();
+        for (HelpMotivationPlugin.SkillData skill : skills)
+        {
+            skill.setRank(100_000 + skill.getSkill().ordinal() * 12_345);
+        }
+
+        reordered = new ArrayList<>(skills);
+        reordered.add(0, reordered.remove(reordered.size() - 1));
+
+        // Same order as skills, with one skill a few XP further along
+        xpDrop = new ArrayList<>(skills);
+        HelpMotivationPlugin.SkillData first = xpDrop.get(0);
+        xpDrop.set(0, new HelpMotivationPlugin.SkillData(first.getSkill(), first.getLevel(), first.getXp() + 25, first.getRank()));
+
+        panel.updateSkillList(skills);
+    }
+
+    @Benchmark
+    public void updateAfterXpDrop()
+    {
+        flip = !flip;
+        panel.updateSkillList(flip ? xpDrop : skills);
+    }
+
+    @Benchmark
+    public void updateAfterReorder()
+    {
+        flip = !flip;
+        panel.updateSkillList(flip ? reordered : skills);
+    }
+
+    @Benchmark
+    public void updateFromEmpty()
+    {
+        panel.updateSkillList(null);
+        panel.updateSkillList(skills);
+    }
+}
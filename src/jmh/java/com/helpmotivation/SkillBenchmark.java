@@ -0,0 +1,98 @@
+package com.helpmotivation;
+
+import net.runelite.api.Client;
+import net.runelite.api.Skill;
+import net.runelite.client.hiscore.HiscoreEndpoint;
+import net.runelite.client.hiscore.HiscoreResult;
+import net.runelite.client.hiscore.HiscoreSkill;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Skill bookkeeping: the non-99 index, hiscore mapping and progress calculations.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SkillBenchmark
+{
+    private static final Skill[] SKILLS = Skill.values();
+
+    private Client client;
+    private SkillTracker tracker;
+    private HiscoreResult result;
+    private HelpMotivationPlugin.SkillData skillData;
+    private int xpDrop;
+
+    @Setup
+    public void setUp()
+    {
+        client = BenchmarkFixtures.stubClient();
+        tracker = BenchmarkFixtures.seededTracker(client);
+        result = BenchmarkFixtures.cannedResult();
+        skillData = new HelpMotivationPlugin.SkillData(Skill.AGILITY, 52, BenchmarkFixtures.xp(Skill.AGILITY), 123_456);
+    }
+
+    @Benchmark
+    public List<HelpMotivationPlugin.SkillData> getNon99Skills()
+    {
+        return tracker.getSnapshot().getNon99Skills();
+    }
+
+    @Benchmark
+    public Optional<Skill> getTopSkill()
+    {
+        return tracker.getSnapshot().getTopSkill();
+    }
+
+    @Benchmark
+    public void statChanged()
+    {
+        // A single XP drop rescores one skill and reorders the rest
+        tracker.update(Skill.AGILITY, BenchmarkFixtures.level(Skill.AGILITY), BenchmarkFixtures.xp(Skill.AGILITY) + (++xpDrop & 0xFF));
+    }
+
+    @Benchmark
+    public SkillTracker seedFromClient()
+    {
+        return BenchmarkFixtures.seededTracker(client);
+    }
+
+    @Benchmark
+    public void skillToHiscoreSkill(Blackhole blackhole)
+    {
+        for (Skill skill : SKILLS)
+        {
+            HiscoreSkill hiscoreSkill = SkillMapping.toHiscoreSkill(skill);
+            blackhole.consume(hiscoreSkill);
+        }
+    }
+
+    @Benchmark
+    public HiscoreSnapshot snapshotFromResult()
+    {
+        return HiscoreSnapshot.from("Zezima", HiscoreEndpoint.NORMAL, result, 0L);
+    }
+
+    @Benchmark
+    public double getPercentTo99()
+    {
+        return skillData.getPercentTo99();
+    }
+}
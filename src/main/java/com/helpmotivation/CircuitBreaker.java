@@ -0,0 +1,157 @@
+package com.helpmotivation;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Circuit breaker for the hiscore service. After {@link #FAILURE_THRESHOLD} consecutive failures
+ * the circuit opens and requests fail fast. Once the open period has passed a single probe
+ * request is let through (half-open): success closes the circuit, failure re-opens it with the
+ * open period doubled, up to {@link #MAX_OPEN_MILLIS}.
+ */
+@Slf4j
+class CircuitBreaker
+{
+    enum State
+    {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    private static final int FAILURE_THRESHOLD = 3;
+    private static final long MIN_OPEN_MILLIS = TimeUnit.MINUTES.toMillis(1);
+    private static final long MAX_OPEN_MILLIS = TimeUnit.MINUTES.toMillis(30);
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private int consecutiveTrips;
+    private long openUntil;
+    private boolean probeInFlight;
+
+    private volatile Consumer<State> stateListener;
+
+    /**
+     * Registers a listener called with the new state on every transition.
+     */
+    void setStateListener(Consumer<State> listener)
+    {
+        stateListener = listener;
+    }
+
+    /**
+     * Whether a request may be sent now. In the half-open state only one probe is allowed at a
+     * time, so a successful call must be followed by {@link #recordSuccess()} or
+     * {@link #recordFailure()}.
+     */
+    boolean tryAcquire()
+    {
+        State changed;
+        synchronized (this)
+        {
+            switch (state)
+            {
+                case CLOSED:
+                    return true;
+                case OPEN:
+                    if (System.currentTimeMillis() < openUntil)
+                    {
+                        return false;
+                    }
+                    probeInFlight = true;
+                    changed = transition(State.HALF_OPEN);
+                    break;
+                default:
+                    if (probeInFlight)
+                    {
+                        return false;
+                    }
+                    probeInFlight = true;
+                    return true;
+            }
+        }
+
+        notifyListener(changed);
+        return true;
+    }
+
+    /**
+     * Whether {@link #tryAcquire()} would currently let a request through.
+     */
+    synchronized boolean isCallPermitted()
+    {
+        switch (state)
+        {
+            case CLOSED:
+                return true;
+            case OPEN:
+                return System.currentTimeMillis() >= openUntil;
+            default:
+                return !probeInFlight;
+        }
+    }
+
+    void recordSuccess()
+    {
+        State changed;
+        synchronized (this)
+        {
+            consecutiveFailures = 0;
+            consecutiveTrips = 0;
+            probeInFlight = false;
+            changed = transition(State.CLOSED);
+        }
+        notifyListener(changed);
+    }
+
+    void recordFailure()
+    {
+        State changed = null;
+        synchronized (this)
+        {
+            consecutiveFailures++;
+            probeInFlight = false;
+            if (state == State.HALF_OPEN || consecutiveFailures >= FAILURE_THRESHOLD)
+            {
+                long openMillis = Math.min(MAX_OPEN_MILLIS, MIN_OPEN_MILLIS << Math.min(consecutiveTrips, 5));
+                consecutiveTrips++;
+                openUntil = System.currentTimeMillis() + openMillis;
+                changed = transition(State.OPEN);
+                if (changed != null)
+                {
+                    log.debug("Hiscore circuit opened for {}s after {} failures", openMillis / 1000, consecutiveFailures);
+                }
+            }
+        }
+        notifyListener(changed);
+    }
+
+    /**
+     * Releases a half-open probe that was acquired but never sent.
+     */
+    synchronized void releaseProbe()
+    {
+        probeInFlight = false;
+    }
+
+    private State transition(State next)
+    {
+        if (state == next)
+        {
+            return null;
+        }
+        state = next;
+        return next;
+    }
+
+    private void notifyListener(State changed)
+    {
+        Consumer<State> listener = stateListener;
+        if (changed != null && listener != null)
+        {
+            listener.accept(changed);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.helpmotivation;
+
+import lombok.Value;
+import net.runelite.api.Skill;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable comparison of the local player's weakest skills against a group of other players.
+ * For each skill the players are ranked by experience, highest first.
+ */
+@Value
+class GroupComparison
+{
+    static final GroupComparison EMPTY = new GroupComparison(Collections.emptyList());
+
+    private static final Comparator<Entry> BY_XP = Comparator.comparingLong(Entry::getXp).reversed()
+        .thenComparing(Entry::getPlayerName, String.CASE_INSENSITIVE_ORDER);
+
+    List<SkillComparison> skills;
+
+    @Value
+    static class SkillComparison
+    {
+        Skill skill;
+        List<Entry> entries;
+    }
+
+    @Value
+    static class Entry
+    {
+        String playerName;
+        int level;
+        int rank;
+        long xp;
+        boolean local;
+    }
+
+    /**
+     * @param localSkills the local player's skills to compare, in display order
+     * @param localName the local player's name
+     * @param localSnapshot the local player's latest hiscore snapshot, or null if not known yet
+     * @param others snapshots of the other players, keyed by name; players still loading are absent
+     */
+    static GroupComparison build(List<HelpMotivationPlugin.SkillData> localSkills, String localName,
+        HiscoreSnapshot localSnapshot, Map<String, HiscoreSnapshot> others)
+    {
+        List<SkillComparison> skills = new ArrayList<>(localSkills.size());
+        for (HelpMotivationPlugin.SkillData local : localSkills)
+        {
+            Skill skill = local.getSkill();
+            List<Entry> entries = new ArrayList<>(others.size() + 1);
+            entries.add(new Entry(localName, local.getLevel(),
+                localSnapshot != null ? localSnapshot.getRank(skill) : -1, local.getXp(), true));
+
+            for (Map.Entry<String, HiscoreSnapshot> other : others.entrySet())
+            {
+                HiscoreSnapshot snapshot = other.getValue();
+                entries.add(new Entry(other.getKey(), Math.max(1, snapshot.getLevel(skill)), snapshot.getRank(skill),
+                    Math.max(0, snapshot.getXp(skill)), false));
+            }
+
+            entries.sort(BY_XP);
+            skills.add(new SkillComparison(skill, Collections.unmodifiableList(entries)));
+        }
+
+        return new GroupComparison(Collections.unmodifiableList(skills));
+    }
+}
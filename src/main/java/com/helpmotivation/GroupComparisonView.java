@@ -0,0 +1,248 @@
+package com.helpmotivation;
+
+import net.runelite.api.Skill;
+import net.runelite.client.ui.ColorScheme;
+import net.runelite.client.ui.FontManager;
+
+import javax.swing.*;
+import java.awt.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * The sidebar's group comparison as a single custom-painted component, like {@link SkillListView}.
+ * The section is a flat list of lines: a title, then per skill a header followed by one line per
+ * player. Lines are reused between updates and only those whose text changed are repainted.
+ */
+class GroupComparisonView extends JComponent
+{
+    private static final int LINE_HEIGHT = 20;
+    private static final int TOP_MARGIN = 10;
+    private static final String TITLE = "Group Comparison";
+
+    private final List<Line> lines = new ArrayList<>();
+    private SkillIconAtlas iconAtlas;
+
+    GroupComparisonView()
+    {
+        setOpaque(true);
+        setBackground(ColorScheme.DARK_GRAY_COLOR);
+        setFont(FontManager.getRunescapeFont());
+        setVisible(false);
+    }
+
+    void setIconAtlas(SkillIconAtlas iconAtlas)
+    {
+        this.iconAtlas = iconAtlas;
+        repaint();
+    }
+
+    /**
+     * Replaces the shown comparison. An empty comparison hides the section.
+     */
+    void setComparison(GroupComparison comparison)
+    {
+        int count = 0;
+        if (!comparison.getSkills().isEmpty())
+        {
+            line(count++).title();
+            for (GroupComparison.SkillComparison skill : comparison.getSkills())
+            {
+                line(count++).header(skill.getSkill());
+
+                int position = 1;
+                for (GroupComparison.Entry entry : skill.getEntries())
+                {
+                    line(count++).entry(position++, entry);
+                }
+            }
+        }
+
+        boolean sizeChanged = count != lines.size();
+        while (lines.size() > count)
+        {
+            lines.remove(lines.size() - 1);
+        }
+
+        for (int i = 0; i < count; i++)
+        {
+            if (lines.get(i).changed)
+            {
+                lines.get(i).changed = false;
+                repaintLine(i);
+            }
+        }
+
+        if (sizeChanged)
+        {
+            setVisible(count > 0);
+            revalidate();
+            repaint();
+        }
+    }
+
+    @Override
+    public Dimension getPreferredSize()
+    {
+        return new Dimension(0, lines.isEmpty() ? 0 : TOP_MARGIN + lines.size() * LINE_HEIGHT);
+    }
+
+    @Override
+    protected void paintComponent(Graphics g)
+    {
+        Graphics2D g2 = (Graphics2D) g;
+        g2.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_OFF);
+
+        int width = getWidth();
+        g2.setColor(getBackground());
+        g2.fillRect(0, 0, width, getHeight());
+
+        Rectangle clip = g2.getClipBounds();
+        int first = clip == null ? 0 : Math.max(0, (clip.y - TOP_MARGIN) / LINE_HEIGHT);
+        int last = clip == null ? lines.size() - 1
+            : Math.min(lines.size() - 1, (clip.y + clip.height - 1 - TOP_MARGIN) / LINE_HEIGHT);
+
+        Font font = getFont();
+        Font boldFont = FontManager.getRunescapeBoldFont();
+        Font smallFont = FontManager.getRunescapeSmallFont();
+
+        for (int i = first; i <= last; i++)
+        {
+            Line line = lines.get(i);
+            int y = TOP_MARGIN + i * LINE_HEIGHT;
+
+            switch (line.kind)
+            {
+                case TITLE:
+                    drawText(g2, boldFont, Color.WHITE, TITLE, 0, y);
+                    break;
+                case HEADER:
+                {
+                    g2.setColor(ColorScheme.SCROLL_TRACK_COLOR);
+                    g2.fillRect(0, y, width, LINE_HEIGHT);
+
+                    int textX = 4;
+                    if (iconAtlas != null && iconAtlas.has(line.skill))
+                    {
+                        iconAtlas.draw(g2, line.skill, 4, y + (LINE_HEIGHT - iconAtlas.getHeight(line.skill)) / 2);
+                        textX += iconAtlas.getWidth(line.skill) + 4;
+                    }
+                    drawText(g2, smallFont, ColorScheme.LIGHT_GRAY_COLOR, line.nameText, textX, y);
+                    break;
+                }
+                case ENTRY:
+                {
+                    g2.setColor(line.position % 2 == 0 ? SkillListView.ODD_ROW : SkillListView.EVEN_ROW);
+                    g2.fillRect(0, y, width, LINE_HEIGHT);
+
+                    Color color = line.local ? Color.WHITE : ColorScheme.LIGHT_GRAY_COLOR;
+                    int levelX = width - SkillListView.RANK_COLUMN_WIDTH - SkillListView.LEVEL_COLUMN_WIDTH;
+                    drawText(g2, font, color, line.nameText, 4, y);
+                    drawText(g2, font, color, line.levelText, levelX, y);
+
+                    int rankX = width - 5 - g2.getFontMetrics(smallFont).stringWidth(line.rankText);
+                    drawText(g2, smallFont, line.ranked ? ColorScheme.BRAND_ORANGE : Color.GRAY, line.rankText, rankX, y);
+                    break;
+                }
+            }
+        }
+    }
+
+    private static void drawText(Graphics2D g2, Font font, Color color, String text, int x, int y)
+    {
+        g2.setFont(font);
+        g2.setColor(color);
+        FontMetrics metrics = g2.getFontMetrics();
+        g2.drawString(text, x, y + (LINE_HEIGHT - metrics.getHeight()) / 2 + metrics.getAscent());
+    }
+
+    /**
+     * The line at the index, reusing the existing one when there is one.
+     */
+    private Line line(int index)
+    {
+        if (index < lines.size())
+        {
+            return lines.get(index);
+        }
+
+        Line line = new Line();
+        lines.add(line);
+        return line;
+    }
+
+    private void repaintLine(int index)
+    {
+        repaint(0, TOP_MARGIN + index * LINE_HEIGHT, getWidth(), LINE_HEIGHT);
+    }
+
+    private enum Kind
+    {
+        TITLE,
+        HEADER,
+        ENTRY
+    }
+
+    /**
+     * What one line shows, with its strings formatted only when its content changes.
+     */
+    private static class Line
+    {
+        private Kind kind;
+        private Skill skill;
+        private int position;
+        private boolean local;
+        private boolean ranked;
+        private String nameText = "";
+        private String levelText = "";
+        private String rankText = "";
+        private int playerLevel;
+        private int playerRank;
+        private String playerName;
+        private boolean changed = true;
+
+        void title()
+        {
+            set(Kind.TITLE, null, 0, null, 0, 0, false);
+        }
+
+        void header(Skill skill)
+        {
+            if (set(Kind.HEADER, skill, 0, null, 0, 0, false))
+            {
+                nameText = SkillMapping.getDisplayName(skill);
+            }
+        }
+
+        void entry(int position, GroupComparison.Entry entry)
+        {
+            if (set(Kind.ENTRY, null, position, entry.getPlayerName(), entry.getLevel(), entry.getRank(), entry.isLocal()))
+            {
+                nameText = position + ". " + entry.getPlayerName();
+                levelText = String.valueOf(entry.getLevel());
+                ranked = entry.getRank() > 0;
+                rankText = ranked ? SkillListView.RANK_FORMAT.format(entry.getRank()) : "--";
+            }
+        }
+
+        private boolean set(Kind kind, Skill skill, int position, String playerName, int level, int rank, boolean local)
+        {
+            if (kind == this.kind && skill == this.skill && position == this.position && local == this.local
+                && level == playerLevel && rank == playerRank && Objects.equals(playerName, this.playerName))
+            {
+                return false;
+            }
+
+            this.kind = kind;
+            this.skill = skill;
+            this.position = position;
+            this.playerName = playerName;
+            this.playerLevel = level;
+            this.playerRank = rank;
+            this.local = local;
+            changed = true;
+            return true;
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.helpmotivation;
+
+import lombok.extern.slf4j.Slf4j;
+import net.runelite.client.hiscore.HiscoreEndpoint;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+
+/**
+ * Looks up a batch of players through {@link HiscoreService} with at most
+ * {@link #MAX_CONCURRENT} requests outstanding at once. Nothing blocks: each completed lookup
+ * starts the next queued one. A lookup refused by the rate limiter goes back to the front of the
+ * queue, and the batch resumes once a token is due. Starting a new batch abandons whatever is
+ * left of the previous one.
+ */
+@Slf4j
+class GroupFetcher
+{
+    private static final int MAX_CONCURRENT = 3;
+    private static final long REQUEST_TIMEOUT_SECONDS = 8;
+
+    private final HiscoreService hiscoreService;
+    private final ScheduledExecutorService executor;
+
+    private final Deque<String> pending = new ArrayDeque<>();
+    private int inFlight;
+    private int generation;
+    private boolean waitingForToken;
+    private HiscoreEndpoint endpoint;
+    private BiConsumer<String, HiscoreSnapshot> listener;
+
+    GroupFetcher(HiscoreService hiscoreService, ScheduledExecutorService executor)
+    {
+        this.hiscoreService = hiscoreService;
+        this.executor = executor;
+    }
+
+    /**
+     * Fetches every player in {@code playerNames}. The listener is called once per player as
+     * results arrive, with a null snapshot when the lookup failed or timed out. Players whose
+     * results are still cached resolve without a network request.
+     */
+    synchronized void fetch(List<String> playerNames, HiscoreEndpoint endpoint, BiConsumer<String, HiscoreSnapshot> listener)
+    {
+        generation++;
+        pending.clear();
+        pending.addAll(playerNames);
+        inFlight = 0;
+        waitingForToken = false;
+        this.endpoint = endpoint;
+        this.listener = listener;
+        pump();
+    }
+
+    synchronized void cancel()
+    {
+        generation++;
+        pending.clear();
+        inFlight = 0;
+        waitingForToken = false;
+        listener = null;
+    }
+
+    private void pump()
+    {
+        while (inFlight < MAX_CONCURRENT && !pending.isEmpty() && !waitingForToken)
+        {
+            String playerName = pending.poll();
+            int batch = generation;
+            inFlight++;
+
+            // Time out a copy so one slow player does not fail the shared lookup for other callers
+            CompletableFuture<HiscoreSnapshot> lookup = hiscoreService.lookupGroupMember(playerName, endpoint)
+                .copy()
+                .orTimeout(REQUEST_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            lookup.whenComplete((snapshot, ex) -> onComplete(batch, playerName, snapshot, ex));
+        }
+    }
+
+    private void onComplete(int batch, String playerName, HiscoreSnapshot snapshot, Throwable ex)
+    {
+        Throwable cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+        BiConsumer<String, HiscoreSnapshot> callback;
+        synchronized (this)
+        {
+            if (batch != generation)
+            {
+                return;
+            }
+
+            inFlight--;
+            long retryAfterNanos = cause instanceof HiscoreService.UnavailableException
+                ? ((HiscoreService.UnavailableException) cause).getRetryAfterNanos() : 0;
+            if (retryAfterNanos > 0)
+            {
+                // Rate limited: try this player again first once a token is due
+                pending.addFirst(playerName);
+                if (!waitingForToken)
+                {
+                    waitingForToken = true;
+                    executor.schedule(() -> resume(batch), retryAfterNanos, TimeUnit.NANOSECONDS);
+                }
+                return;
+            }
+
+            callback = listener;
+            pump();
+        }
+
+        if (cause != null && !(cause instanceof CancellationException))
+        {
+            log.debug("Group lookup failed for {}: {}", playerName, cause.toString());
+        }
+
+        if (callback != null)
+        {
+            callback.accept(playerName, ex == null ? snapshot : null);
+        }
+    }
+
+    private synchronized void resume(int batch)
+    {
+        if (batch != generation)
+        {
+            return;
+        }
+
+        waitingForToken = false;
+        pump();
+    }
+}
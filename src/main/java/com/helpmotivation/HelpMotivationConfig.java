@@ -3,10 +3,14 @@ package com.helpmotivation;
 import net.runelite.client.config.Config;
 import net.runelite.client.config.ConfigGroup;
 import net.runelite.client.config.ConfigItem;
+import net.runelite.client.config.Range;
+import net.runelite.client.config.Units;
 
-@ConfigGroup("helpmotivation")
+@ConfigGroup(HelpMotivationConfig.GROUP)
 public interface HelpMotivationConfig extends Config
 {
+    String GROUP = "helpmotivation";
+
     @ConfigItem(
         keyName = "enableMessages",
         name = "Enable Messages",
@@ -41,24 +45,97 @@ public interface HelpMotivationConfig extends Config
     }
 
     @ConfigItem(
-        keyName = "pureMode",
-        name = "Pure Mode",
-        description = "Fully ignore combat skills (Attack, Strength, Defence, Ranged, Magic, Prayer)",
+        keyName = "skillPreset",
+        name = "Account Build",
+        description = "Ignore the skills an account build leaves untrained. Pure: Attack, Strength, Defence, Ranged, Magic, Prayer. "
+            + "Skiller: every combat skill. 1 Defence: Defence only",
         position = 4
     )
-    default boolean pureMode()
+    default SkillPreset skillPreset()
     {
-        return true;
+        return SkillPreset.PURE;
+    }
+
+    @ConfigItem(
+        keyName = "excludedSkills",
+        name = "Ignore Skills",
+        description = "More skills to ignore, e.g. Construction, Hunter (comma or one per line)",
+        position = 5
+    )
+    default String excludedSkills()
+    {
+        return "";
+    }
+
+    @ConfigItem(
+        keyName = "includedSkills",
+        name = "Always Include",
+        description = "Skills to keep even when the account build or Ignore Skills would drop them (comma or one per line)",
+        position = 6
+    )
+    default String includedSkills()
+    {
+        return "";
     }
 
     @ConfigItem(
         keyName = "customQuotes",
         name = "Custom Quotes",
-        description = "Add your own motivational insults (one per line). Use %d for rank placeholder.",
-        position = 5
+        description = "Add your own motivational insults (one per line). Placeholders: {skill}, {level}, {rank}, {xpTo99}, {percent}, {rankDelta}, {rankWeek}, {xpRate}, {timeTo99}. "
+            + "Use {?rank:text} to show text only when ranked, {!rank:text} when not. %d still works for rank.",
+        position = 7
     )
     default String customQuotes()
     {
         return "";
     }
-}
+
+    @Range(
+        min = 1,
+        max = 60
+    )
+    @Units(Units.MINUTES)
+    @ConfigItem(
+        keyName = "cacheDuration",
+        name = "Hiscore Cache Duration",
+        description = "How long hiscore lookups are reused before fetching fresh ranks",
+        position = 8
+    )
+    default int cacheDuration()
+    {
+        return 5;
+    }
+
+    @ConfigItem(
+        keyName = "comparePlayers",
+        name = "Compare With",
+        description = "Friends or group members to compare your lowest skills against (comma or one per line)",
+        position = 9
+    )
+    default String comparePlayers()
+    {
+        return "";
+    }
+
+    @ConfigItem(
+        keyName = "priorityStrategy",
+        name = "Prioritize By",
+        description = "How the skill most in need of attention is chosen for messages and the panel",
+        position = 10
+    )
+    default PriorityStrategy priorityStrategy()
+    {
+        return PriorityStrategy.LOWEST_LEVEL;
+    }
+
+    @ConfigItem(
+        keyName = "skillGoals",
+        name = "Skill Goals",
+        description = "Target levels for 'Furthest from goal', e.g. Agility 70, Herblore 80 (comma or one per line)",
+        position = 11
+    )
+    default String skillGoals()
+    {
+        return "";
+    }
+}
\ No newline at end of file
@@ -1,53 +1,52 @@
 package com.helpmotivation;
 
 import lombok.extern.slf4j.Slf4j;
-import net.runelite.api.Client;
-import net.runelite.api.Player;
-import net.runelite.api.Skill;
-import net.runelite.client.hiscore.HiscoreResult;
-import net.runelite.client.hiscore.HiscoreSkill;
 import net.runelite.client.ui.ColorScheme;
 import net.runelite.client.ui.FontManager;
 import net.runelite.client.ui.PluginPanel;
-import net.runelite.client.util.ImageUtil;
 
 import javax.swing.*;
 import javax.swing.border.EmptyBorder;
 import java.awt.*;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
-import java.awt.image.BufferedImage;
-import java.text.NumberFormat;
-import java.util.EnumMap;
 import java.util.List;
-import java.util.Locale;
-import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 
 @Slf4j
 public class HelpMotivationPanel extends PluginPanel
 {
-    private static final int SKILL_COLUMN_WIDTH = 30;
-    private static final int LEVEL_COLUMN_WIDTH = 35;
     private static final int PERCENT_COLUMN_WIDTH = 50;
-    private static final int RANK_COLUMN_WIDTH = 70;
-    private static final int ROW_HEIGHT = 25;
-
-    private static final Color ODD_ROW = new Color(44, 44, 44);
-    private static final Color EVEN_ROW = ColorScheme.DARK_GRAY_COLOR;
+    private static final int DIAGNOSTICS_REFRESH_MILLIS = 1000;
 
     private final HelpMotivationPlugin plugin;
-    private final Client client;
-    private final JPanel skillListPanel;
+    private final SkillListView skillList;
+    private final GroupComparisonView groupView;
     private final JLabel headerLabel;
     private final JButton refreshButton;
+    private final JLabel statusLabel = new JLabel();
+    private final JLabel diagnosticsToggle = new JLabel();
+    private final JPanel diagnosticsBody = new JPanel(new BorderLayout());
+    private final JTextArea diagnosticsText = new JTextArea();
+    private final Timer diagnosticsTimer = new Timer(DIAGNOSTICS_REFRESH_MILLIS, e -> refreshDiagnostics());
+    private final LatencyHistogram skillListTime;
+    private final LatencyHistogram groupComparisonTime;
+
+    private boolean iconAtlasRequested;
+
+    private final AtomicBoolean refreshPending = new AtomicBoolean();
+    private final AtomicReference<GroupComparison> pendingComparison = new AtomicReference<>();
 
-    private final Map<Skill, BufferedImage> skillIcons = new EnumMap<>(Skill.class);
+    private HiscoreSnapshot lastSnapshot;
 
-    public HelpMotivationPanel(HelpMotivationPlugin plugin, Client client)
+    public HelpMotivationPanel(HelpMotivationPlugin plugin)
     {
         super(false);
         this.plugin = plugin;
-        this.client = client;
+        this.skillListTime = plugin.getMetrics().histogram("edt.skillList");
+        this.groupComparisonTime = plugin.getMetrics().histogram("edt.groupComparison");
 
         setLayout(new BorderLayout());
         setBorder(new EmptyBorder(10, 10, 10, 10));
@@ -67,6 +66,11 @@ public class HelpMotivationPanel extends PluginPanel
         refreshButton.addActionListener(e -> refreshData());
         headerPanel.add(refreshButton, BorderLayout.EAST);
 
+        statusLabel.setFont(FontManager.getRunescapeSmallFont());
+        statusLabel.setBorder(new EmptyBorder(4, 0, 0, 0));
+        statusLabel.setVisible(false);
+        headerPanel.add(statusLabel, BorderLayout.SOUTH);
+
         JPanel northPanel = new JPanel(new BorderLayout());
         northPanel.setBackground(ColorScheme.DARK_GRAY_COLOR);
         northPanel.add(headerPanel, BorderLayout.NORTH);
@@ -74,12 +78,19 @@ public class HelpMotivationPanel extends PluginPanel
 
         add(northPanel, BorderLayout.NORTH);
 
-        skillListPanel = new JPanel(new GridBagLayout());
-        skillListPanel.setBackground(ColorScheme.DARK_GRAY_COLOR);
+        skillList = new SkillListView();
+
+        groupView = new GroupComparisonView();
+
+        JPanel content = new JPanel(new BorderLayout());
+        content.setBackground(ColorScheme.DARK_GRAY_COLOR);
+        content.add(skillList, BorderLayout.NORTH);
+        content.add(groupView, BorderLayout.CENTER);
+        content.add(buildDiagnostics(), BorderLayout.SOUTH);
 
         JPanel wrapper = new JPanel(new BorderLayout());
         wrapper.setBackground(ColorScheme.DARK_GRAY_COLOR);
-        wrapper.add(skillListPanel, BorderLayout.NORTH);
+        wrapper.add(content, BorderLayout.NORTH);
 
         JScrollPane scrollPane = new JScrollPane(wrapper);
         scrollPane.setHorizontalScrollBarPolicy(JScrollPane.HORIZONTAL_SCROLLBAR_NEVER);
@@ -89,9 +100,117 @@ public class HelpMotivationPanel extends PluginPanel
         scrollPane.setBorder(null);
 
         add(scrollPane, BorderLayout.CENTER);
+    }
+
+    @Override
+    public void addNotify()
+    {
+        super.addNotify();
+
+        // Decode the icons the first time the panel is shown, off the EDT
+        if (!iconAtlasRequested)
+        {
+            iconAtlasRequested = true;
+            CompletableFuture.supplyAsync(SkillIconAtlas::build, plugin.getExecutor())
+                .thenAccept(atlas -> SwingUtilities.invokeLater(() ->
+                {
+                    skillList.setIconAtlas(atlas);
+                    groupView.setIconAtlas(atlas);
+                }))
+                .exceptionally(ex ->
+                {
+                    log.warn("Unable to load skill icons", ex);
+                    // Try again the next time the panel is shown
+                    SwingUtilities.invokeLater(() -> iconAtlasRequested = false);
+                    return null;
+                });
+        }
+
+        if (diagnosticsBody.isVisible())
+        {
+            diagnosticsTimer.start();
+        }
+    }
+
+    /**
+     * Collapsed-by-default section with live plugin metrics. The text is only refreshed while the
+     * section is open.
+     */
+    private JPanel buildDiagnostics()
+    {
+        JPanel diagnostics = new JPanel(new BorderLayout());
+        diagnostics.setBackground(ColorScheme.DARK_GRAY_COLOR);
+        diagnostics.setBorder(new EmptyBorder(10, 0, 0, 0));
+
+        diagnosticsToggle.setText("\u25B8 Diagnostics");
+        diagnosticsToggle.setForeground(ColorScheme.LIGHT_GRAY_COLOR);
+        diagnosticsToggle.setFont(FontManager.getRunescapeSmallFont());
+        diagnosticsToggle.setCursor(Cursor.getPredefinedCursor(Cursor.HAND_CURSOR));
+        diagnosticsToggle.addMouseListener(new MouseAdapter()
+        {
+            @Override
+            public void mouseClicked(MouseEvent e)
+            {
+                setDiagnosticsVisible(!diagnosticsBody.isVisible());
+            }
+        });
+        diagnostics.add(diagnosticsToggle, BorderLayout.NORTH);
+
+        diagnosticsText.setEditable(false);
+        diagnosticsText.setLineWrap(true);
+        diagnosticsText.setFont(FontManager.getRunescapeSmallFont());
+        diagnosticsText.setForeground(ColorScheme.LIGHT_GRAY_COLOR);
+        diagnosticsText.setBackground(ColorScheme.DARKER_GRAY_COLOR);
+        diagnosticsText.setBorder(new EmptyBorder(4, 4, 4, 4));
+        diagnosticsBody.add(diagnosticsText, BorderLayout.CENTER);
+
+        JButton exportButton = new JButton("Export JSON");
+        exportButton.setFocusPainted(false);
+        exportButton.addActionListener(e ->
+        {
+            exportButton.setEnabled(false);
+            plugin.exportMetrics().whenComplete((file, ex) -> SwingUtilities.invokeLater(() ->
+            {
+                exportButton.setEnabled(true);
+                exportButton.setToolTipText(ex == null ? "Exported to " + file : "Export failed");
+            }));
+        });
+        diagnosticsBody.add(exportButton, BorderLayout.SOUTH);
+        diagnosticsBody.setOpaque(false);
+        diagnosticsBody.setVisible(false);
+        diagnostics.add(diagnosticsBody, BorderLayout.CENTER);
+
+        return diagnostics;
+    }
+
+    private void setDiagnosticsVisible(boolean visible)
+    {
+        diagnosticsBody.setVisible(visible);
+        diagnosticsToggle.setText((visible ? "\u25BE" : "\u25B8") + " Diagnostics");
+        if (visible)
+        {
+            refreshDiagnostics();
+            diagnosticsTimer.start();
+        }
+        else
+        {
+            diagnosticsTimer.stop();
+        }
+        revalidate();
+    }
 
-        loadSkillIcons();
-        updateSkillList(null);
+    private void refreshDiagnostics()
+    {
+        StringBuilder sb = new StringBuilder(512);
+        plugin.getMetrics().appendSummary(sb);
+        diagnosticsText.setText(sb.toString().trim());
+    }
+
+    @Override
+    public void removeNotify()
+    {
+        diagnosticsTimer.stop();
+        super.removeNotify();
     }
 
     private JPanel buildColumnHeaders()
@@ -106,11 +225,11 @@ public class HelpMotivationPanel extends PluginPanel
 
         c.gridx = 0;
         c.weightx = 0;
-        headers.add(buildHeaderColumn("Skill", SKILL_COLUMN_WIDTH, SwingConstants.LEFT), c);
+        headers.add(buildHeaderColumn("Skill", SkillListView.SKILL_COLUMN_WIDTH, SwingConstants.LEFT), c);
 
         c.gridx = 1;
         c.weightx = 0;
-        headers.add(buildHeaderColumn("Lvl", LEVEL_COLUMN_WIDTH, SwingConstants.LEFT), c);
+        headers.add(buildHeaderColumn("Lvl", SkillListView.LEVEL_COLUMN_WIDTH, SwingConstants.LEFT), c);
 
         c.gridx = 2;
         c.weightx = 1;
@@ -118,7 +237,7 @@ public class HelpMotivationPanel extends PluginPanel
 
         c.gridx = 3;
         c.weightx = 0;
-        headers.add(buildHeaderColumn("Rank", RANK_COLUMN_WIDTH, SwingConstants.RIGHT), c);
+        headers.add(buildHeaderColumn("Rank", SkillListView.RANK_COLUMN_WIDTH, SwingConstants.RIGHT), c);
 
         return headers;
     }
@@ -155,293 +274,132 @@ public class HelpMotivationPanel extends PluginPanel
         return column;
     }
 
-    private void loadSkillIcons()
-    {
-        for (Skill skill : Skill.values())
-        {
-            if (skill == Skill.OVERALL)
-            {
-                continue;
-            }
-
-            try
-            {
-                String iconPath = "/skill_icons_small/" + skill.getName().toLowerCase() + ".png";
-                BufferedImage icon = ImageUtil.loadImageResource(getClass(), iconPath);
-                if (icon != null)
-                {
-                    skillIcons.put(skill, icon);
-                }
-            }
-            catch (Exception e)
-            {
-                log.debug("Could not load icon for skill: {}", skill.getName());
-            }
-        }
-    }
-
     private void refreshData()
     {
-        Player localPlayer = client.getLocalPlayer();
-        if (localPlayer != null && localPlayer.getName() != null)
+        String playerName = plugin.getCurrentPlayerName();
+        if (playerName != null)
         {
             refreshButton.setEnabled(false);
             refreshButton.setText("Loading...");
-            plugin.refreshPanelData(localPlayer.getName());
+            plugin.refreshPanelData(playerName);
         }
     }
 
-    public void updateSkillData(HiscoreResult result)
+    /**
+     * Shows ranks from the given snapshot. A null snapshot means the lookup failed, in which case
+     * the previously shown ranks are kept.
+     */
+    public void updateSkillData(HiscoreSnapshot snapshot)
     {
         SwingUtilities.invokeLater(() ->
         {
             refreshButton.setEnabled(true);
             refreshButton.setText("Refresh");
 
-            List<HelpMotivationPlugin.SkillData> skills = plugin.getNon99Skills();
-
-            if (result != null)
+            if (snapshot != null)
             {
-                for (HelpMotivationPlugin.SkillData skillData : skills)
-                {
-                    HiscoreSkill hiscoreSkill = skillToHiscoreSkill(skillData.getSkill());
-                    if (hiscoreSkill != null)
-                    {
-                        net.runelite.client.hiscore.Skill hiscoreData = result.getSkill(hiscoreSkill);
-                        if (hiscoreData != null)
-                        {
-                            skillData.setRank(hiscoreData.getRank());
-                        }
-                    }
-                }
+                lastSnapshot = snapshot;
             }
-
-            updateSkillList(skills);
+            updateSkillList(buildSkillData());
         });
     }
 
-    private void updateSkillList(List<HelpMotivationPlugin.SkillData> skills)
+    /**
+     * Shows whether the hiscores are currently reachable. Nothing is shown while the circuit is
+     * closed.
+     */
+    void updateHiscoreStatus(CircuitBreaker.State state)
     {
-        skillListPanel.removeAll();
-
-        if (skills == null || skills.isEmpty())
-        {
-            GridBagConstraints c = new GridBagConstraints();
-            c.fill = GridBagConstraints.HORIZONTAL;
-            c.weightx = 1;
-            c.gridx = 0;
-            c.gridy = 0;
-            c.insets = new Insets(20, 0, 20, 0);
-
-            JLabel emptyLabel = new JLabel("Log in to see your skills");
-            emptyLabel.setForeground(Color.GRAY);
-            emptyLabel.setHorizontalAlignment(SwingConstants.CENTER);
-            skillListPanel.add(emptyLabel, c);
-        }
-        else
+        SwingUtilities.invokeLater(() ->
         {
-            headerLabel.setText("Skills to Improve (" + skills.size() + ")");
-
-            GridBagConstraints c = new GridBagConstraints();
-            c.fill = GridBagConstraints.HORIZONTAL;
-            c.weightx = 1;
-            c.gridx = 0;
-            c.gridy = 0;
-
-            for (int i = 0; i < skills.size(); i++)
+            switch (state)
             {
-                HelpMotivationPlugin.SkillData skillData = skills.get(i);
-                JPanel row = createSkillRow(skillData, i % 2 == 1);
-                skillListPanel.add(row, c);
-                c.gridy++;
+                case OPEN:
+                    statusLabel.setText("Hiscores unavailable, showing last known ranks");
+                    statusLabel.setForeground(ColorScheme.PROGRESS_ERROR_COLOR);
+                    break;
+                case HALF_OPEN:
+                    statusLabel.setText("Reconnecting to hiscores...");
+                    statusLabel.setForeground(ColorScheme.PROGRESS_INPROGRESS_COLOR);
+                    break;
+                default:
+                    break;
             }
-        }
-
-        skillListPanel.revalidate();
-        skillListPanel.repaint();
+            statusLabel.setVisible(state != CircuitBreaker.State.CLOSED);
+        });
     }
 
-    private JPanel createSkillRow(HelpMotivationPlugin.SkillData skillData, boolean odd)
+    /**
+     * Forgets the shown ranks, e.g. when logging out before switching accounts.
+     */
+    void reset()
     {
-        Color bgColor = odd ? ODD_ROW : EVEN_ROW;
-
-        JPanel row = new JPanel(new GridBagLayout());
-        row.setBackground(bgColor);
-        row.setBorder(new EmptyBorder(2, 0, 2, 0));
-
-        row.addMouseListener(new MouseAdapter()
+        SwingUtilities.invokeLater(() ->
         {
-            @Override
-            public void mouseEntered(MouseEvent e)
-            {
-                row.setBackground(bgColor.darker());
-            }
-
-            @Override
-            public void mouseExited(MouseEvent e)
-            {
-                row.setBackground(bgColor);
-            }
+            refreshButton.setEnabled(true);
+            refreshButton.setText("Refresh");
+            lastSnapshot = null;
+            updateSkillList(null);
         });
-
-        GridBagConstraints c = new GridBagConstraints();
-        c.fill = GridBagConstraints.HORIZONTAL;
-        c.gridy = 0;
-
-        c.gridx = 0;
-        c.weightx = 0;
-        row.add(buildSkillIcon(skillData.getSkill()), c);
-
-        c.gridx = 1;
-        c.weightx = 0;
-        row.add(buildLevelColumn(skillData.getLevel()), c);
-
-        c.gridx = 2;
-        c.weightx = 1;
-        row.add(buildPercentColumn(skillData.getPercentTo99()), c);
-
-        c.gridx = 3;
-        c.weightx = 0;
-        row.add(buildRankColumn(skillData.getRank()), c);
-
-        String tooltip = String.format("%s - Level %d - %.1f%% to 99",
-            formatSkillName(skillData.getSkill()),
-            skillData.getLevel(),
-            skillData.getPercentTo99());
-        row.setToolTipText(tooltip);
-
-        return row;
     }
 
-    private JPanel buildSkillIcon(Skill skill)
+    /**
+     * Re-renders the list from the plugin's current skill levels and the last hiscore snapshot.
+     * Safe to call on every XP drop; bursts of calls collapse into a single EDT update.
+     */
+    void requestSkillRefresh()
     {
-        JPanel column = new JPanel(new BorderLayout());
-        column.setOpaque(false);
-        column.setPreferredSize(new Dimension(SKILL_COLUMN_WIDTH, ROW_HEIGHT));
-        column.setBorder(new EmptyBorder(0, 4, 0, 0));
-
-        BufferedImage icon = skillIcons.get(skill);
-        if (icon != null)
+        if (refreshPending.compareAndSet(false, true))
         {
-            JLabel label = new JLabel(new ImageIcon(icon));
-            column.add(label, BorderLayout.CENTER);
+            SwingUtilities.invokeLater(() ->
+            {
+                refreshPending.set(false);
+                updateSkillList(buildSkillData());
+            });
         }
-
-        return column;
-    }
-
-    private JPanel buildLevelColumn(int level)
-    {
-        JPanel column = new JPanel(new BorderLayout());
-        column.setOpaque(false);
-        column.setPreferredSize(new Dimension(LEVEL_COLUMN_WIDTH, ROW_HEIGHT));
-        column.setBorder(new EmptyBorder(0, 4, 0, 0));
-
-        JLabel label = new JLabel(String.valueOf(level));
-        label.setForeground(Color.WHITE);
-        column.add(label, BorderLayout.WEST);
-
-        return column;
-    }
-
-    private JPanel buildPercentColumn(double percent)
-    {
-        JPanel column = new JPanel(new BorderLayout());
-        column.setOpaque(false);
-        column.setPreferredSize(new Dimension(PERCENT_COLUMN_WIDTH, ROW_HEIGHT));
-
-        JLabel label = new JLabel(String.format("%.1f%%", percent));
-        label.setForeground(ColorScheme.LIGHT_GRAY_COLOR);
-        label.setHorizontalAlignment(SwingConstants.CENTER);
-        column.add(label, BorderLayout.CENTER);
-
-        return column;
     }
 
-    private JPanel buildRankColumn(int rank)
+    private List<HelpMotivationPlugin.SkillData> buildSkillData()
     {
-        JPanel column = new JPanel(new BorderLayout());
-        column.setOpaque(false);
-        column.setPreferredSize(new Dimension(RANK_COLUMN_WIDTH, ROW_HEIGHT));
-        column.setBorder(new EmptyBorder(0, 0, 0, 5));
+        List<HelpMotivationPlugin.SkillData> skills = plugin.getNon99Skills();
 
-        String rankText = rank > 0
-            ? NumberFormat.getNumberInstance(Locale.US).format(rank)
-            : "--";
-
-        JLabel label = new JLabel(rankText);
-        label.setForeground(rank > 0 ? ColorScheme.BRAND_ORANGE : Color.GRAY);
-        label.setFont(FontManager.getRunescapeSmallFont());
-        column.add(label, BorderLayout.EAST);
+        if (lastSnapshot != null)
+        {
+            for (HelpMotivationPlugin.SkillData skillData : skills)
+            {
+                skillData.setRank(lastSnapshot.getRank(skillData.getSkill()));
+            }
+        }
 
-        return column;
+        return skills;
     }
 
-    private String formatSkillName(Skill skill)
+    void updateSkillList(List<HelpMotivationPlugin.SkillData> skills)
     {
-        String name = skill.getName();
-        return name.substring(0, 1).toUpperCase() + name.substring(1).toLowerCase();
+        long start = System.nanoTime();
+        if (skills != null && !skills.isEmpty())
+        {
+            headerLabel.setText("Skills to Improve (" + skills.size() + ")");
+        }
+        skillList.setSkills(skills);
+        skillListTime.recordSince(start);
     }
 
-    private HiscoreSkill skillToHiscoreSkill(Skill skill)
+    /**
+     * Shows the group comparison below the skill list, or hides the section when it is empty.
+     * Safe to call as each player's lookup completes; only the latest comparison is shown, in a
+     * single EDT update per burst.
+     */
+    void updateGroupComparison(GroupComparison comparison)
     {
-        switch (skill)
+        if (pendingComparison.getAndSet(comparison) == null)
         {
-            case ATTACK:
-                return HiscoreSkill.ATTACK;
-            case DEFENCE:
-                return HiscoreSkill.DEFENCE;
-            case STRENGTH:
-                return HiscoreSkill.STRENGTH;
-            case HITPOINTS:
-                return HiscoreSkill.HITPOINTS;
-            case RANGED:
-                return HiscoreSkill.RANGED;
-            case PRAYER:
-                return HiscoreSkill.PRAYER;
-            case MAGIC:
-                return HiscoreSkill.MAGIC;
-            case COOKING:
-                return HiscoreSkill.COOKING;
-            case WOODCUTTING:
-                return HiscoreSkill.WOODCUTTING;
-            case FLETCHING:
-                return HiscoreSkill.FLETCHING;
-            case FISHING:
-                return HiscoreSkill.FISHING;
-            case FIREMAKING:
-                return HiscoreSkill.FIREMAKING;
-            case CRAFTING:
-                return HiscoreSkill.CRAFTING;
-            case SMITHING:
-                return HiscoreSkill.SMITHING;
-            case MINING:
-                return HiscoreSkill.MINING;
-            case HERBLORE:
-                return HiscoreSkill.HERBLORE;
-            case AGILITY:
-                return HiscoreSkill.AGILITY;
-            case THIEVING:
-                return HiscoreSkill.THIEVING;
-            case SLAYER:
-                return HiscoreSkill.SLAYER;
-            case FARMING:
-                return HiscoreSkill.FARMING;
-            case RUNECRAFT:
-                return HiscoreSkill.RUNECRAFT;
-            case HUNTER:
-                return HiscoreSkill.HUNTER;
-            case CONSTRUCTION:
-                return HiscoreSkill.CONSTRUCTION;
-            default:
-                try
-                {
-                    return HiscoreSkill.valueOf(skill.name());
-                }
-                catch (IllegalArgumentException e)
-                {
-                    return null;
-                }
+            SwingUtilities.invokeLater(() ->
+            {
+                long start = System.nanoTime();
+                groupView.setComparison(pendingComparison.getAndSet(null));
+                groupComparisonTime.recordSince(start);
+            });
         }
     }
 }
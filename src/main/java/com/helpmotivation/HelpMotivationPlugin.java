@@ -1,14 +1,23 @@
 package com.helpmotivation;
 
+import com.google.common.hash.Hashing;
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
 import com.google.inject.Provides;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import net.runelite.api.ChatMessageType;
 import net.runelite.api.Client;
+import net.runelite.api.Experience;
 import net.runelite.api.GameState;
 import net.runelite.api.Player;
 import net.runelite.api.Skill;
 import net.runelite.api.events.GameStateChanged;
+import net.runelite.api.events.GameTick;
+import net.runelite.api.events.StatChanged;
+import net.runelite.api.events.VarbitChanged;
+import net.runelite.api.gameval.VarbitID;
+import net.runelite.client.RuneLite;
 import net.runelite.client.callback.ClientThread;
 import net.runelite.client.chat.ChatColorType;
 import net.runelite.client.chat.ChatMessageBuilder;
@@ -17,9 +26,9 @@ import net.runelite.client.chat.QueuedMessage;
 import net.runelite.client.config.ConfigManager;
 import net.runelite.client.eventbus.Subscribe;
 import net.runelite.client.events.ConfigChanged;
+import net.runelite.client.events.RuneScapeProfileChanged;
 import net.runelite.client.hiscore.HiscoreClient;
-import net.runelite.client.hiscore.HiscoreResult;
-import net.runelite.client.hiscore.HiscoreSkill;
+import net.runelite.client.hiscore.HiscoreEndpoint;
 import net.runelite.client.plugins.Plugin;
 import net.runelite.client.plugins.PluginDescriptor;
 import net.runelite.client.ui.ClientToolbar;
@@ -27,22 +36,31 @@ import net.runelite.client.ui.NavigationButton;
 import net.runelite.client.util.ImageUtil;
 
 import javax.inject.Inject;
-import javax.swing.*;
 import java.awt.image.BufferedImage;
+import java.io.File;
 import java.io.IOException;
-import java.text.NumberFormat;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.Comparator;
-import java.util.EnumSet;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
-import java.util.Random;
 import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
 import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
 
 @Slf4j
 @PluginDescriptor(
@@ -52,21 +70,20 @@ import java.util.concurrent.TimeUnit;
 )
 public class HelpMotivationPlugin extends Plugin
 {
-    private static final String[] DEFAULT_QUOTES = {
-        "Are you touching grass too often?",
-        "Rank %s and not getting better. Grats!",
-        "Get that XP, the grind doesn't stop.",
-        "Your grandmother has a higher rank than this."
-    };
-
-    private static final Set<Skill> PURE_COMBAT_SKILLS = EnumSet.of(
-        Skill.ATTACK,
-        Skill.STRENGTH,
-        Skill.DEFENCE,
-        Skill.RANGED,
-        Skill.MAGIC,
-        Skill.PRAYER
-    );
+    private static final String SNAPSHOT_KEY = "hiscoreSnapshot";
+    private static final String LOGIN_NAME_KEY_PREFIX = "loginName.";
+    private static final String PURE_MODE_KEY = "pureMode";
+
+    private static final int MAX_GROUP_SIZE = 20;
+
+    private static final int GROUP_COMPARE_SKILLS = 5;
+
+    // XP rates decay while a skill sits idle, so rate-based priorities are refreshed about once a minute
+    private static final int RATE_REFRESH_TICKS = 100;
+
+    private static final File HISTORY_DIR = new File(new File(RuneLite.RUNELITE_DIR, "helpmotivation"), "history");
+    private static final File METRICS_DIR = new File(new File(RuneLite.RUNELITE_DIR, "helpmotivation"), "metrics");
+    private static final DateTimeFormatter METRICS_FILE_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
 
     @Inject
     private Client client;
@@ -92,19 +109,101 @@ public class HelpMotivationPlugin extends Plugin
     @Inject
     private ConfigManager configManager;
 
+    @Inject
+    private Gson gson;
+
     @Getter
     private HelpMotivationPanel panel;
 
     private NavigationButton navButton;
 
-    private ScheduledFuture<?> messageTask;
+    private boolean awaitingLocalPlayer;
+
+    private volatile String currentPlayerName;
+
+    private HiscoreService hiscoreService;
+
+    private final Metrics metrics = new Metrics();
+    private final LatencyHistogram messageTickTime = metrics.histogram("message.tick");
+    private final LatencyHistogram statChangedTime = metrics.histogram("clientThread.statChanged");
+    private final LatencyHistogram refreshTime = metrics.histogram("panel.refreshRequest");
+    private final LongAdder messageTicks = metrics.counter("scheduler.ticks");
+    private final SkillTracker skillTracker = new SkillTracker();
+    private final XpRateTracker xpRateTracker = new XpRateTracker();
+
+    private final MotivationQuotes quotes = new MotivationQuotes();
+    private final MessageQueue messageQueue = new MessageQueue(metrics);
+
+    private final int[] lastRanks = new int[Skill.values().length];
+
+    private volatile RankHistory rankHistory;
+
+    private MessageScheduler messageScheduler;
+
+    private volatile HiscoreSnapshot lastSnapshot;
+    private volatile HiscoreSnapshot prefetchedSnapshot;
+
+    // Rank changes are measured from the first snapshot of the session, normally the one
+    // persisted at the end of the previous session
+    private volatile HiscoreSnapshot baselineSnapshot;
+    private volatile SnapshotDiff rankDiff;
+    private volatile Skill announcedMover;
+    private volatile int announcedDelta;
+
+    private volatile boolean messagePending;
+
+    private GroupFetcher groupFetcher;
+
+    private volatile List<String> groupNames = Collections.emptyList();
+
+    private final Map<String, HiscoreSnapshot> groupSnapshots = new ConcurrentHashMap<>();
+
+    private volatile SkillFilter skillFilter = SkillFilter.NONE;
+
+    private volatile HiscoreEndpoint hiscoreEndpoint = HiscoreEndpoint.NORMAL;
+
+    // Group members are not necessarily on the local player's account type, so they are looked up
+    // on the ladder for the world alone
+    private volatile HiscoreEndpoint groupEndpoint = HiscoreEndpoint.NORMAL;
 
-    private String currentPlayerName;
+    private int accountType = -1;
+
+    private HiscoreEndpoint accountEndpoint = HiscoreEndpoint.NORMAL;
+
+    private long lastMessageVersion = -1;
+
+    private int ticksSinceRateRefresh;
 
     @Override
     protected void startUp() throws Exception
     {
-        panel = new HelpMotivationPanel(this, client);
+        hiscoreService = new HiscoreService(hiscoreClient, metrics);
+        hiscoreService.setCacheTtl(config.cacheDuration(), TimeUnit.MINUTES);
+        hiscoreService.setSnapshotListener(this::onSnapshotFetched);
+        hiscoreService.setCircuitListener(state -> panel.updateHiscoreStatus(state));
+        messageScheduler = new MessageScheduler(executor, this::onMessageTick);
+        metrics.gauge("scheduler.emitted", messageScheduler::getEmitted);
+        metrics.gauge("scheduler.skipped", messageScheduler::getSkipped);
+        metrics.gauge("scheduler.failed", messageScheduler::getFailed);
+        groupFetcher = new GroupFetcher(hiscoreService, executor);
+        groupNames = parseGroupNames(config.comparePlayers());
+
+        quotes.compile(config.customQuotes());
+        migratePureMode();
+        applySkillFilter();
+        applyPriorityStrategy();
+        clientThread.invokeLater(() ->
+        {
+            if (client.getGameState() == GameState.LOGGED_IN)
+            {
+                seedSkillTracker();
+                setAccountType(client.getVarbitValue(VarbitID.IRONMAN));
+                updateHiscoreEndpoint();
+                awaitingLocalPlayer = true;
+            }
+        });
+
+        panel = new HelpMotivationPanel(this);
 
         BufferedImage icon = ImageUtil.loadImageResource(getClass(), "icon.png");
         if (icon == null)
@@ -127,7 +226,8 @@ public class HelpMotivationPlugin extends Plugin
     @Override
     protected void shutDown() throws Exception
     {
-        stopMessageScheduler();
+        resetSession();
+        hiscoreService.clear();
         clientToolbar.removeNavigation(navButton);
         log.info("Help Motivation plugin stopped");
     }
@@ -135,33 +235,365 @@ public class HelpMotivationPlugin extends Plugin
     @Subscribe
     public void onGameStateChanged(GameStateChanged event)
     {
-        if (event.getGameState() == GameState.LOGGED_IN)
+        if (event.getGameState() == GameState.LOGGING_IN)
+        {
+            prefetchHiscores();
+        }
+        else if (event.getGameState() == GameState.LOGGED_IN)
+        {
+            if (currentPlayerName == null)
+            {
+                // The local player is not always there yet; onGameTick picks it up as soon as it is
+                updateHiscoreEndpoint();
+                awaitingLocalPlayer = true;
+            }
+            else if (updateHiscoreEndpoint())
+            {
+                // Hopped between a regular and a seasonal world
+                openRankHistory(currentPlayerName);
+                refreshPanelData(currentPlayerName);
+            }
+        }
+        else if (event.getGameState() == GameState.LOGIN_SCREEN)
+        {
+            resetSession();
+        }
+    }
+
+    /**
+     * Forgets everything about the logged in player, on logout and when the plugin is stopped,
+     * so the next login starts from scratch.
+     */
+    private void resetSession()
+    {
+        awaitingLocalPlayer = false;
+        stopMessageScheduler();
+        messageQueue.clear();
+        hiscoreService.cancelAll();
+        skillTracker.reset();
+        xpRateTracker.reset();
+        panel.reset();
+        closeRankHistory();
+        lastSnapshot = null;
+        prefetchedSnapshot = null;
+        baselineSnapshot = null;
+        rankDiff = null;
+        announcedMover = null;
+        announcedDelta = 0;
+        messagePending = false;
+        lastMessageVersion = -1;
+        groupFetcher.cancel();
+        groupSnapshots.clear();
+        panel.updateGroupComparison(GroupComparison.EMPTY);
+        accountType = -1;
+        accountEndpoint = HiscoreEndpoint.NORMAL;
+        currentPlayerName = null;
+    }
+
+    @Subscribe
+    public void onGameTick(GameTick event)
+    {
+        messageQueue.drain(System.currentTimeMillis(), this::deliverMessage);
+
+        if (++ticksSinceRateRefresh >= RATE_REFRESH_TICKS)
+        {
+            ticksSinceRateRefresh = 0;
+            if (skillTracker.refreshXpRates(xpRateTracker, System.currentTimeMillis()))
+            {
+                panel.requestSkillRefresh();
+            }
+        }
+
+        if (!awaitingLocalPlayer)
+        {
+            return;
+        }
+
+        Player localPlayer = client.getLocalPlayer();
+        if (localPlayer == null || localPlayer.getName() == null)
+        {
+            return;
+        }
+
+        awaitingLocalPlayer = false;
+        String playerName = localPlayer.getName();
+        currentPlayerName = playerName;
+
+        // The varbit is authoritative from here on; the remembered type only served the prefetch
+        setAccountType(client.getVarbitValue(VarbitID.IRONMAN));
+        updateHiscoreEndpoint();
+        rememberLoginName(playerName);
+
+        HiscoreSnapshot prefetched = prefetchedSnapshot;
+        prefetchedSnapshot = null;
+        if (prefetched != null && prefetched.getEndpoint() == hiscoreEndpoint)
+        {
+            onSnapshotFetched(prefetched);
+        }
+
+        openRankHistory(playerName);
+        refreshPanelData(playerName);
+        startMessageScheduler();
+    }
+
+    /**
+     * Starts looking up the player remembered for the username being logged in with, so the
+     * result is cached by the time the player is in game. The account type is the one last seen
+     * for them, as the account type varbit has not arrived yet.
+     */
+    private void prefetchHiscores()
+    {
+        String key = loginNameKey();
+        String remembered = key != null ? configManager.getConfiguration(HelpMotivationConfig.GROUP, key) : null;
+        int separator = remembered != null ? remembered.indexOf(':') : -1;
+        if (separator < 0)
+        {
+            return;
+        }
+
+        try
+        {
+            accountEndpoint = HiscoreEndpoint.valueOf(remembered.substring(0, separator));
+            String playerName = remembered.substring(separator + 1);
+            log.debug("Prefetching {} hiscores for {}", accountEndpoint, playerName);
+            hiscoreService.lookup(playerName, accountEndpoint);
+        }
+        catch (IllegalArgumentException e)
+        {
+            configManager.unsetConfiguration(HelpMotivationConfig.GROUP, key);
+        }
+    }
+
+    private void rememberLoginName(String playerName)
+    {
+        String key = loginNameKey();
+        if (key != null)
+        {
+            configManager.setConfiguration(HelpMotivationConfig.GROUP, key, accountEndpoint.name() + ":" + playerName);
+        }
+    }
+
+    /**
+     * Config key for the player last seen with the current login username. The username is
+     * hashed so it is never written to disk. Null for accounts without one, such as Jagex
+     * launcher logins.
+     */
+    private String loginNameKey()
+    {
+        String username = client.getUsername();
+        if (username == null || username.isEmpty())
+        {
+            return null;
+        }
+
+        String hash = Hashing.sha256().hashString(username.toLowerCase(Locale.ROOT), StandardCharsets.UTF_8).toString();
+        return LOGIN_NAME_KEY_PREFIX + hash.substring(0, 16);
+    }
+
+    @Subscribe
+    public void onVarbitChanged(VarbitChanged event)
+    {
+        if (event.getVarbitId() != VarbitID.IRONMAN || !setAccountType(event.getValue()))
+        {
+            return;
+        }
+
+        if (updateHiscoreEndpoint() && currentPlayerName != null)
+        {
+            rememberLoginName(currentPlayerName);
+            openRankHistory(currentPlayerName);
+            refreshPanelData(currentPlayerName);
+        }
+    }
+
+    /**
+     * @return true if the account type changed
+     */
+    private boolean setAccountType(int value)
+    {
+        if (value == accountType)
+        {
+            return false;
+        }
+
+        // 0 normal, 1 ironman, 2 ultimate, 3 hardcore, 4+ group ironman variants
+        accountType = value;
+        switch (accountType)
+        {
+            case 1:
+                accountEndpoint = HiscoreEndpoint.IRONMAN;
+                break;
+            case 2:
+                accountEndpoint = HiscoreEndpoint.ULTIMATE_IRONMAN;
+                break;
+            case 3:
+                accountEndpoint = HiscoreEndpoint.HARDCORE_IRONMAN;
+                break;
+            default:
+                accountEndpoint = HiscoreEndpoint.NORMAL;
+                break;
+        }
+        return true;
+    }
+
+    /**
+     * Picks the hiscore ladder for the current world, falling back to the account type's ladder
+     * on regular worlds. During login, before the account type varbit can be read, the account
+     * type is the one remembered from the previous login.
+     *
+     * @return true if the endpoint changed
+     */
+    private boolean updateHiscoreEndpoint()
+    {
+        HiscoreEndpoint endpoint = HiscoreEndpoint.fromWorldTypes(client.getWorldType());
+        if (endpoint != groupEndpoint)
+        {
+            groupEndpoint = endpoint;
+            groupSnapshots.clear();
+        }
+
+        if (endpoint == HiscoreEndpoint.NORMAL)
+        {
+            endpoint = accountEndpoint;
+        }
+
+        if (endpoint == hiscoreEndpoint)
+        {
+            return false;
+        }
+
+        log.debug("Using {} hiscores (account type {})", endpoint, accountType);
+        hiscoreEndpoint = endpoint;
+        return true;
+    }
+
+    @Subscribe
+    public void onRuneScapeProfileChanged(RuneScapeProfileChanged event)
+    {
+        HiscoreSnapshot snapshot = HiscoreSnapshot.decode(
+            configManager.getRSProfileConfiguration(HelpMotivationConfig.GROUP, SNAPSHOT_KEY));
+        if (snapshot == null || !isNewer(snapshot, lastSnapshot) || !isNewer(snapshot, baselineSnapshot)
+            || !isNewer(snapshot, prefetchedSnapshot) || !hiscoreService.prime(snapshot))
+        {
+            // Usually the login prefetch got there first
+            return;
+        }
+
+        // Render the last known ranks straight away; a fresh lookup replaces them once it completes
+        lastSnapshot = snapshot;
+        skillTracker.setRanks(snapshot);
+        baselineSnapshot = snapshot;
+        rankDiff = null;
+        panel.updateSkillData(snapshot);
+    }
+
+    private static boolean isNewer(HiscoreSnapshot snapshot, HiscoreSnapshot held)
+    {
+        return held == null || snapshot.getFetchedAt() > held.getFetchedAt();
+    }
+
+    private void onSnapshotFetched(HiscoreSnapshot snapshot)
+    {
+        if (currentPlayerName == null)
+        {
+            // A login prefetch that finished before the local player was known; replayed once it is
+            prefetchedSnapshot = snapshot;
+            return;
+        }
+
+        if (!snapshot.getPlayerName().equals(currentPlayerName))
+        {
+            return;
+        }
+
+        skillTracker.setRanks(snapshot);
+
+        HiscoreSnapshot baseline = baselineSnapshot;
+        if (baseline == null || baseline.getEndpoint() != snapshot.getEndpoint())
+        {
+            baselineSnapshot = snapshot;
+            rankDiff = null;
+        }
+        else
+        {
+            rankDiff = snapshot.diffSince(baseline);
+            panel.requestSkillRefresh();
+        }
+
+        if (configManager.getRSProfileKey() != null)
+        {
+            configManager.setRSProfileConfiguration(HelpMotivationConfig.GROUP, SNAPSHOT_KEY, snapshot.encode());
+        }
+
+        RankHistory history = rankHistory;
+        if (history != null && history.getEndpoint() == snapshot.getEndpoint())
+        {
+            history.record(snapshot);
+        }
+    }
+
+    /**
+     * Opens the player's history for the current hiscore ladder. Each ladder has its own file, so
+     * ranks from a seasonal world never mix with the main ladder's.
+     */
+    private void openRankHistory(String playerName)
+    {
+        closeRankHistory();
+        HiscoreEndpoint endpoint = hiscoreEndpoint;
+        executor.execute(() ->
         {
-            executor.schedule(() ->
-                clientThread.invokeLater(() ->
+            try
+            {
+                RankHistory history = RankHistory.open(HISTORY_DIR, playerName, endpoint);
+                if (playerName.equals(currentPlayerName) && endpoint == hiscoreEndpoint)
                 {
-                    Player localPlayer = client.getLocalPlayer();
-                    if (localPlayer != null && localPlayer.getName() != null)
+                    rankHistory = history;
+
+                    // Catch up on a lookup that completed while the history was opening
+                    HiscoreSnapshot latest = lastSnapshot;
+                    if (latest != null && playerName.equals(latest.getPlayerName()) && latest.getEndpoint() == endpoint)
                     {
-                        currentPlayerName = localPlayer.getName();
-                        refreshPanelData(currentPlayerName);
-                        startMessageScheduler();
+                        history.record(latest);
                     }
-                }),
-                3, TimeUnit.SECONDS
-            );
-        }
-        else if (event.getGameState() == GameState.LOGIN_SCREEN)
+                }
+                else
+                {
+                    history.close();
+                }
+            }
+            catch (IOException e)
+            {
+                log.warn("Unable to open rank history for {}", playerName, e);
+            }
+        });
+    }
+
+    private void closeRankHistory()
+    {
+        RankHistory history = rankHistory;
+        rankHistory = null;
+        if (history != null)
         {
-            stopMessageScheduler();
-            currentPlayerName = null;
+            history.close();
         }
     }
 
+    @Subscribe
+    public void onStatChanged(StatChanged event)
+    {
+        long start = System.nanoTime();
+        long now = System.currentTimeMillis();
+        xpRateTracker.record(event.getSkill(), event.getXp(), now);
+        skillTracker.setXpRate(event.getSkill(), xpRateTracker.getXpPerHour(event.getSkill(), now));
+        skillTracker.update(event.getSkill(), event.getLevel(), event.getXp());
+        panel.requestSkillRefresh();
+        statChangedTime.recordSince(start);
+    }
+
     @Subscribe
     public void onConfigChanged(ConfigChanged event)
     {
-        if (!event.getGroup().equals("helpmotivation"))
+        if (!event.getGroup().equals(HelpMotivationConfig.GROUP))
         {
             return;
         }
@@ -175,13 +607,42 @@ public class HelpMotivationPlugin extends Plugin
             }
         }
 
-        if (event.getKey().equals("pureMode"))
+        if (event.getKey().equals("cacheDuration"))
+        {
+            hiscoreService.setCacheTtl(config.cacheDuration(), TimeUnit.MINUTES);
+        }
+
+        if (event.getKey().equals("customQuotes"))
+        {
+            quotes.compile(config.customQuotes());
+        }
+
+        if (event.getKey().equals("comparePlayers"))
+        {
+            groupNames = parseGroupNames(config.comparePlayers());
+            groupSnapshots.keySet().retainAll(groupNames);
+            if (currentPlayerName != null)
+            {
+                refreshGroup();
+            }
+        }
+
+        if (event.getKey().equals("skillPreset") || event.getKey().equals("excludedSkills")
+            || event.getKey().equals("includedSkills"))
         {
+            applySkillFilter();
             if (currentPlayerName != null)
             {
                 refreshPanelData(currentPlayerName);
             }
         }
+
+        if (event.getKey().equals("priorityStrategy") || event.getKey().equals("skillGoals"))
+        {
+            applyPriorityStrategy();
+            panel.requestSkillRefresh();
+            publishGroupComparison();
+        }
     }
 
     private void startMessageScheduler()
@@ -193,28 +654,12 @@ public class HelpMotivationPlugin extends Plugin
             return;
         }
 
-        long intervalMs = parseIntervalToMillis(config.messageInterval());
-
-        messageTask = executor.scheduleAtFixedRate(() ->
-            clientThread.invokeLater(() ->
-            {
-                Player localPlayer = client.getLocalPlayer();
-                if (localPlayer != null && localPlayer.getName() != null)
-                {
-                    checkAndDisplayMessage(localPlayer.getName());
-                }
-            }),
-            intervalMs, intervalMs, TimeUnit.MILLISECONDS
-        );
+        messageScheduler.start(parseIntervalToMillis(config.messageInterval()));
     }
 
     private void stopMessageScheduler()
     {
-        if (messageTask != null)
-        {
-            messageTask.cancel(false);
-            messageTask = null;
-        }
+        messageScheduler.stop();
     }
 
     private long parseIntervalToMillis(String interval)
@@ -240,193 +685,429 @@ public class HelpMotivationPlugin extends Plugin
         }
     }
 
-    private void checkAndDisplayMessage(String playerName)
+    /**
+     * Runs on the scheduler's executor. Everything it needs comes from the published skill
+     * snapshot and the player name captured at login, so it never waits on the client thread.
+     */
+    private void onMessageTick()
     {
-        Optional<Skill> lowestSkill = getLowestNon99Skill();
-        if (!lowestSkill.isPresent())
+        messageTicks.increment();
+        String playerName = currentPlayerName;
+        if (playerName == null || messagePending)
         {
-            sendChatMessage("All skills at 99! You absolute legend!");
+            messageScheduler.recordSkipped();
             return;
         }
 
-        Skill skill = lowestSkill.get();
-        int level = client.getRealSkillLevel(skill);
+        long start = System.nanoTime();
+        skillTracker.refreshXpRates(xpRateTracker, System.currentTimeMillis());
+        checkAndDisplayMessage(playerName, skillTracker.getSnapshot());
+        messageTickTime.recordSince(start);
+    }
 
-        executor.submit(() ->
+    private void checkAndDisplayMessage(String playerName, SkillSnapshot skills)
+    {
+        Optional<Skill> topSkill = skills.getTopSkill();
+        if (!topSkill.isPresent())
         {
-            try
+            enqueueMessage("All skills at 99! You absolute legend!", MessageQueue.Channel.CHAT,
+                MessageQueue.Priority.MILESTONE);
+            return;
+        }
+
+        Skill skill = topSkill.get();
+
+        long version = skills.getVersion();
+        boolean xpChanged = version != lastMessageVersion;
+        lastMessageVersion = version;
+
+        HiscoreSnapshot cached = lastSnapshot;
+        if (cached != null && (!xpChanged || !hiscoreService.isAvailable()))
+        {
+            // No XP gained since the last message (or the hiscores are refusing requests), so the
+            // ranks we already have are as good as a fresh lookup
+            displayMessage(skills, skill, cached.getRank(skill));
+            return;
+        }
+
+        messagePending = true;
+        hiscoreService.lookup(playerName, hiscoreEndpoint).whenComplete((snapshot, ex) ->
+        {
+            messagePending = false;
+
+            if (ex instanceof CancellationException)
             {
-                HiscoreResult result = hiscoreClient.lookup(playerName);
-                if (result != null)
+                return;
+            }
+
+            if (ex != null)
+            {
+                if (!(ex instanceof HiscoreService.UnavailableException))
                 {
-                    HiscoreSkill hiscoreSkill = skillToHiscoreSkill(skill);
-                    if (hiscoreSkill != null)
-                    {
-                        net.runelite.client.hiscore.Skill hiscoreData = result.getSkill(hiscoreSkill);
-                        if (hiscoreData != null && hiscoreData.getRank() != -1)
-                        {
-                            int rank = hiscoreData.getRank();
-                            String message = formatMessage(skill, level, rank);
-
-                            SwingUtilities.invokeLater(() ->
-                            {
-                                if (config.useOverhead())
-                                {
-                                    clientThread.invokeLater(() ->
-                                    {
-                                        Player player = client.getLocalPlayer();
-                                        if (player != null)
-                                        {
-                                            player.setOverheadText(message);
-                                            player.setOverheadCycle(200);
-                                        }
-                                    });
-                                }
-                                else
-                                {
-                                    sendChatMessage(message);
-                                }
-                            });
-                        }
-                        else
-                        {
-                            sendChatMessage(formatMessageNoRank(skill, level));
-                        }
-                    }
+                    log.warn("Failed to lookup hiscore for {}: {}", playerName, ex.toString());
                 }
+                messageScheduler.recordLookupFailure();
+                displayMessage(skills, skill, cached != null ? cached.getRank(skill) : -1);
+                return;
             }
-            catch (IOException e)
+
+            if (snapshot != null)
             {
-                log.warn("Failed to lookup hiscore for {}", playerName, e);
-                SwingUtilities.invokeLater(() -> sendChatMessage(formatMessageNoRank(skill, level)));
+                lastSnapshot = snapshot;
             }
+            displayMessage(skills, skill, snapshot != null ? snapshot.getRank(skill) : -1);
         });
     }
 
+    /**
+     * Queues the message for this tick; it is shown on the next game tick its channel is free.
+     */
+    private void displayMessage(SkillSnapshot skills, Skill skill, int rank)
+    {
+        String message = formatRankChange();
+        MessageQueue.Priority priority = MessageQueue.Priority.RANK_CHANGE;
+        if (message == null)
+        {
+            message = formatMessage(skills, skill, rank);
+            priority = MessageQueue.Priority.QUOTE;
+        }
+        MessageQueue.Channel channel = config.useOverhead() ? MessageQueue.Channel.OVERHEAD : MessageQueue.Channel.CHAT;
+        enqueueMessage(message, channel, priority);
+    }
+
+    /**
+     * Queues a message for the client thread, counting it as emitted only if the queue took it.
+     */
+    private void enqueueMessage(String message, MessageQueue.Channel channel, MessageQueue.Priority priority)
+    {
+        if (messageQueue.offer(message, channel, priority, System.currentTimeMillis()))
+        {
+            messageScheduler.recordEmitted();
+        }
+        else
+        {
+            messageScheduler.recordSkipped();
+        }
+        log.debug("Message tick done (emitted: {}, skipped: {}, failed: {})",
+            messageScheduler.getEmitted(), messageScheduler.getSkipped(), messageScheduler.getFailed());
+    }
+
+    private void deliverMessage(MessageQueue.Message message)
+    {
+        if (message.getChannel() == MessageQueue.Channel.CHAT)
+        {
+            sendChatMessage(message.getText());
+            return;
+        }
+
+        Player player = client.getLocalPlayer();
+        if (player != null)
+        {
+            player.setOverheadText(message.getText());
+            player.setOverheadCycle(200);
+        }
+    }
+
     void refreshPanelData(String playerName)
     {
-        executor.submit(() ->
+        long start = System.nanoTime();
+        hiscoreService.lookup(playerName, hiscoreEndpoint).whenComplete((snapshot, ex) ->
         {
-            try
+            // From the request to its result, cached or not
+            refreshTime.recordSince(start);
+
+            if (ex instanceof CancellationException)
             {
-                HiscoreResult result = hiscoreClient.lookup(playerName);
-                SwingUtilities.invokeLater(() -> panel.updateSkillData(result));
+                // Still re-enable the refresh button, keeping whatever ranks are shown
+                panel.updateSkillData(null);
+                return;
             }
-            catch (IOException e)
+
+            if (ex != null)
             {
-                log.warn("Failed to lookup hiscore for panel", e);
-                SwingUtilities.invokeLater(() -> panel.updateSkillData(null));
+                if (!(ex instanceof HiscoreService.UnavailableException))
+                {
+                    log.warn("Failed to lookup hiscore for panel: {}", ex.toString());
+                }
+                panel.updateSkillData(null);
+                return;
             }
+
+            if (snapshot != null)
+            {
+                lastSnapshot = snapshot;
+            }
+            panel.updateSkillData(snapshot);
+            publishGroupComparison();
         });
+
+        refreshGroup();
     }
 
-    private boolean isPureCombatSkill(Skill skill)
+    /**
+     * The local player's name, captured once they are known after login. Safe to read from any
+     * thread.
+     */
+    String getCurrentPlayerName()
     {
-        return config.pureMode() && PURE_COMBAT_SKILLS.contains(skill);
+        return currentPlayerName;
     }
 
-    private Optional<Skill> getLowestNon99Skill()
+    Metrics getMetrics()
     {
-        return Arrays.stream(Skill.values())
-            .filter(s -> s != Skill.OVERALL)
-            .filter(s -> !isPureCombatSkill(s))
-            .filter(s -> {
-                try
+        return metrics;
+    }
+
+    /**
+     * The plugin's background executor, for work that has to stay off the client thread and EDT.
+     */
+    Executor getExecutor()
+    {
+        return executor;
+    }
+
+    /**
+     * Writes the current metrics as JSON to a timestamped file under the RuneLite directory.
+     */
+    CompletableFuture<File> exportMetrics()
+    {
+        JsonObject json = metrics.toJson();
+        return CompletableFuture.supplyAsync(() ->
+        {
+            File file = new File(METRICS_DIR, "metrics-" + METRICS_FILE_FORMAT.format(LocalDateTime.now()) + ".json");
+            try
+            {
+                if (!METRICS_DIR.exists() && !METRICS_DIR.mkdirs())
                 {
-                    int level = client.getRealSkillLevel(s);
-                    int xp = client.getSkillExperience(s);
-                    return level < 99 && xp >= 0;
+                    throw new IOException("Unable to create " + METRICS_DIR);
                 }
-                catch (Exception e)
+
+                try (Writer writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8))
                 {
-                    return false;
+                    gson.newBuilder().setPrettyPrinting().create().toJson(json, writer);
                 }
-            })
-            .min(Comparator.comparingInt(s -> client.getRealSkillLevel(s)));
+                return file;
+            }
+            catch (IOException e)
+            {
+                log.warn("Unable to export metrics", e);
+                throw new UncheckedIOException(e);
+            }
+        }, executor);
     }
 
-    List<SkillData> getNon99Skills()
+    private void refreshGroup()
     {
-        List<SkillData> skills = new ArrayList<>();
-        for (Skill skill : Skill.values())
+        List<String> names = groupNames;
+        if (names.isEmpty())
         {
-            if (skill == Skill.OVERALL || isPureCombatSkill(skill))
+            groupFetcher.cancel();
+            panel.updateGroupComparison(GroupComparison.EMPTY);
+            return;
+        }
+
+        groupFetcher.fetch(names, groupEndpoint, (playerName, snapshot) ->
+        {
+            // Keep the previous result for a player whose refresh failed
+            if (snapshot != null)
             {
-                continue;
+                groupSnapshots.put(playerName, snapshot);
             }
+            publishGroupComparison();
+        });
+    }
 
-            try
+    private void publishGroupComparison()
+    {
+        String playerName = currentPlayerName;
+        List<String> names = groupNames;
+        if (playerName == null || names.isEmpty())
+        {
+            return;
+        }
+
+        // Preserve the configured order for players that tie on experience
+        Map<String, HiscoreSnapshot> others = new LinkedHashMap<>();
+        for (String name : names)
+        {
+            HiscoreSnapshot snapshot = groupSnapshots.get(name);
+            if (snapshot != null)
             {
-                int level = client.getRealSkillLevel(skill);
-                int xp = client.getSkillExperience(skill);
-                if (level < 99 && xp >= 0)
-                {
-                    skills.add(new SkillData(skill, level, xp, -1));
-                }
+                others.put(name, snapshot);
             }
-            catch (Exception e)
+        }
+
+        List<SkillData> skills = getNon99Skills();
+        List<SkillData> compared = skills.subList(0, Math.min(GROUP_COMPARE_SKILLS, skills.size()));
+        panel.updateGroupComparison(GroupComparison.build(compared, playerName, lastSnapshot, others));
+    }
+
+    private static List<String> parseGroupNames(String value)
+    {
+        if (value == null || value.trim().isEmpty())
+        {
+            return Collections.emptyList();
+        }
+
+        Set<String> names = new LinkedHashSet<>();
+        for (String name : value.split("[,\\r\\n]+"))
+        {
+            String trimmed = name.trim();
+            if (!trimmed.isEmpty() && names.size() < MAX_GROUP_SIZE)
             {
+                names.add(trimmed);
             }
         }
+        return Collections.unmodifiableList(new ArrayList<>(names));
+    }
 
-        skills.sort(Comparator.comparingInt(SkillData::getLevel));
+    /**
+     * The current non-99 skills with session rates and rank changes filled in. Reads only
+     * published snapshots, so it is safe to call from the EDT.
+     */
+    List<SkillData> getNon99Skills()
+    {
+        List<SkillData> skills = skillTracker.getSnapshot().getNon99Skills();
+        long now = System.currentTimeMillis();
+        SnapshotDiff diff = rankDiff;
+        for (SkillData skillData : skills)
+        {
+            skillData.setXpPerHour(xpRateTracker.getXpPerHour(skillData.getSkill(), now));
+            skillData.setRankDelta(diff != null ? diff.getRankDelta(skillData.getSkill()) : 0);
+        }
         return skills;
     }
 
-    private String formatMessage(Skill skill, int level, int rank)
+    private void seedSkillTracker()
     {
-        String quote = getRandomQuote(rank);
-        String skillName = formatSkillName(skill);
+        skillTracker.reset();
+        xpRateTracker.reset();
+        long now = System.currentTimeMillis();
+        for (Skill skill : Skill.values())
+        {
+            if (skill != Skill.OVERALL)
+            {
+                skillTracker.update(skill, client.getRealSkillLevel(skill), client.getSkillExperience(skill));
+                xpRateTracker.record(skill, client.getSkillExperience(skill), now);
+            }
+        }
+    }
 
-        return String.format("Level %d %s... %s", level, skillName, quote);
+    private void applySkillFilter()
+    {
+        skillFilter = SkillFilter.compile(config.skillPreset(), config.excludedSkills(), config.includedSkills());
+        skillTracker.setFilter(skillFilter);
     }
 
-    private String formatMessageNoRank(Skill skill, int level)
+    /**
+     * Carries a disabled Pure Mode over to the account build setting that replaced it.
+     */
+    private void migratePureMode()
     {
-        String quote = getRandomQuote(-1);
-        String skillName = formatSkillName(skill);
+        String pureMode = configManager.getConfiguration(HelpMotivationConfig.GROUP, PURE_MODE_KEY);
+        if (pureMode == null)
+        {
+            return;
+        }
 
-        return String.format("Level %d %s... %s", level, skillName, quote);
+        if (!Boolean.parseBoolean(pureMode))
+        {
+            configManager.setConfiguration(HelpMotivationConfig.GROUP, "skillPreset", SkillPreset.NONE);
+        }
+        configManager.unsetConfiguration(HelpMotivationConfig.GROUP, PURE_MODE_KEY);
     }
 
-    private String formatSkillName(Skill skill)
+    private void applyPriorityStrategy()
     {
-        String name = skill.getName();
-        return name.substring(0, 1).toUpperCase() + name.substring(1).toLowerCase();
+        skillTracker.setStrategy(config.priorityStrategy(), parseSkillGoals(config.skillGoals()));
     }
 
-    private String getRandomQuote(int rank)
+    /**
+     * Parses entries such as "Agility 70" or "herblore: 80" into target levels indexed by skill
+     * ordinal. Unknown skills and unparseable levels are ignored.
+     */
+    private static int[] parseSkillGoals(String value)
     {
-        List<String> quotes = new ArrayList<>();
+        int[] goals = new int[Skill.values().length];
+        if (value == null || value.trim().isEmpty())
+        {
+            return goals;
+        }
 
-        String customQuotesStr = config.customQuotes();
-        if (customQuotesStr != null)
+        for (String entry : value.split("[,\\r\\n]+"))
         {
-            String[] customQuotes = customQuotesStr.split("\\r?\\n|\\\\n");
-            for (String q : customQuotes)
+            String trimmed = entry.trim();
+            int split = Math.max(trimmed.lastIndexOf(' '), trimmed.lastIndexOf(':'));
+            if (split <= 0)
             {
-                if (!q.trim().isEmpty())
-                {
-                    quotes.add(q.trim());
-                }
+                continue;
+            }
+
+            Skill skill = SkillFilter.skillNamed(trimmed.substring(0, split).replace(":", "").trim());
+            if (skill == null)
+            {
+                continue;
+            }
+
+            try
+            {
+                int level = Integer.parseInt(trimmed.substring(split + 1).trim());
+                goals[skill.ordinal()] = Math.max(0, Math.min(Experience.MAX_REAL_LEVEL, level));
+            }
+            catch (NumberFormatException e)
+            {
+                log.debug("Ignoring skill goal '{}'", trimmed);
             }
         }
+        return goals;
+    }
 
-        if (quotes.isEmpty())
+    /**
+     * Announces the largest rank mover, or returns null when there is nothing new to report.
+     * Every fetch produces a new cumulative diff, so a mover is only announced again once it or
+     * its delta has changed.
+     */
+    private String formatRankChange()
+    {
+        SnapshotDiff diff = rankDiff;
+        Skill mover = diff != null ? diff.getLargestMover(skillFilter) : null;
+        if (mover == null)
         {
-            quotes.addAll(Arrays.asList(DEFAULT_QUOTES));
+            return null;
         }
 
-        Random random = new Random();
-        String quote = quotes.get(random.nextInt(quotes.size()));
+        int delta = diff.getRankDelta(mover);
+        if (mover == announcedMover && delta == announcedDelta)
+        {
+            return null;
+        }
 
-        if (rank > 0 && (quote.contains("%s") || quote.contains("%d")))
+        announcedMover = mover;
+        announcedDelta = delta;
+        return quotes.formatRankChange(mover, diff, System.currentTimeMillis());
+    }
+
+    private String formatMessage(SkillSnapshot skills, Skill skill, int rank)
+    {
+        int level = skills.getLevel(skill);
+        long xpPerHour = xpRateTracker.getXpPerHour(skill, System.currentTimeMillis());
+        if (rank <= 0)
         {
-            String formattedRank = NumberFormat.getNumberInstance(Locale.US).format(rank);
-            quote = quote.replace("%d", formattedRank).replace("%s", formattedRank);
+            return quotes.format(quotes.context(skill, level)
+                .xp(skills.getXp(skill))
+                .xpPerHour(xpPerHour));
         }
 
-        return quote;
+        int previousRank = lastRanks[skill.ordinal()];
+        lastRanks[skill.ordinal()] = rank;
+
+        RankHistory history = rankHistory;
+        return quotes.format(quotes.context(skill, level)
+            .xp(skills.getXp(skill))
+            .xpPerHour(xpPerHour)
+            .rank(rank)
+            .rankDelta(previousRank > 0 ? previousRank - rank : 0)
+            .rankWeek(history != null ? history.getRankChange(skill, 7, TimeUnit.DAYS) : 0));
     }
 
     private void sendChatMessage(String message)
@@ -444,68 +1125,6 @@ public class HelpMotivationPlugin extends Plugin
             .build());
     }
 
-    private HiscoreSkill skillToHiscoreSkill(Skill skill)
-    {
-        switch (skill)
-        {
-            case ATTACK:
-                return HiscoreSkill.ATTACK;
-            case DEFENCE:
-                return HiscoreSkill.DEFENCE;
-            case STRENGTH:
-                return HiscoreSkill.STRENGTH;
-            case HITPOINTS:
-                return HiscoreSkill.HITPOINTS;
-            case RANGED:
-                return HiscoreSkill.RANGED;
-            case PRAYER:
-                return HiscoreSkill.PRAYER;
-            case MAGIC:
-                return HiscoreSkill.MAGIC;
-            case COOKING:
-                return HiscoreSkill.COOKING;
-            case WOODCUTTING:
-                return HiscoreSkill.WOODCUTTING;
-            case FLETCHING:
-                return HiscoreSkill.FLETCHING;
-            case FISHING:
-                return HiscoreSkill.FISHING;
-            case FIREMAKING:
-                return HiscoreSkill.FIREMAKING;
-            case CRAFTING:
-                return HiscoreSkill.CRAFTING;
-            case SMITHING:
-                return HiscoreSkill.SMITHING;
-            case MINING:
-                return HiscoreSkill.MINING;
-            case HERBLORE:
-                return HiscoreSkill.HERBLORE;
-            case AGILITY:
-                return HiscoreSkill.AGILITY;
-            case THIEVING:
-                return HiscoreSkill.THIEVING;
-            case SLAYER:
-                return HiscoreSkill.SLAYER;
-            case FARMING:
-                return HiscoreSkill.FARMING;
-            case RUNECRAFT:
-                return HiscoreSkill.RUNECRAFT;
-            case HUNTER:
-                return HiscoreSkill.HUNTER;
-            case CONSTRUCTION:
-                return HiscoreSkill.CONSTRUCTION;
-            default:
-                try
-                {
-                    return HiscoreSkill.valueOf(skill.name());
-                }
-                catch (IllegalArgumentException e)
-                {
-                    return null;
-                }
-        }
-    }
-
     @Provides
     HelpMotivationConfig provideConfig(ConfigManager configManager)
     {
@@ -515,11 +1134,12 @@ public class HelpMotivationPlugin extends Plugin
     @Getter
     public static class SkillData
     {
-        private static final int MAX_XP = 13_034_431;
         private final Skill skill;
         private final int level;
         private final int xp;
         private int rank;
+        private long xpPerHour;
+        private int rankDelta;
 
         public SkillData(Skill skill, int level, int xp, int rank)
         {
@@ -534,9 +1154,30 @@ public class HelpMotivationPlugin extends Plugin
             this.rank = rank;
         }
 
+        /**
+         * Ranks gained since the session's first snapshot; negative when the player dropped.
+         */
+        public void setRankDelta(int rankDelta)
+        {
+            this.rankDelta = rankDelta;
+        }
+
+        public void setXpPerHour(long xpPerHour)
+        {
+            this.xpPerHour = xpPerHour;
+        }
+
         public double getPercentTo99()
         {
-            return (xp * 100.0) / MAX_XP;
+            return (xp * 100.0) / XpRateTracker.XP_99;
+        }
+
+        /**
+         * Projected time to level 99 at the current session rate, or -1 while there is no rate.
+         */
+        public long getMillisTo99()
+        {
+            return XpRateTracker.millisTo99(xp, xpPerHour);
         }
 
         public int getXp()
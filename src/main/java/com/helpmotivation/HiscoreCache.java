@@ -0,0 +1,96 @@
+package com.helpmotivation;
+
+import lombok.Value;
+import net.runelite.client.hiscore.HiscoreEndpoint;
+import net.runelite.client.util.Text;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Small LRU cache of hiscore snapshots keyed by player name and hiscore endpoint.
+ * Entries expire a configurable time-to-live after they were fetched.
+ */
+class HiscoreCache
+{
+    private static final int MAX_ENTRIES = 32;
+
+    private final Map<Key, HiscoreSnapshot> entries = new LinkedHashMap<Key, HiscoreSnapshot>(16, 0.75f, true)
+    {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, HiscoreSnapshot> eldest)
+        {
+            return size() > MAX_ENTRIES;
+        }
+    };
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    private volatile long ttlMillis = TimeUnit.MINUTES.toMillis(5);
+
+    void setTtl(long duration, TimeUnit unit)
+    {
+        ttlMillis = unit.toMillis(duration);
+    }
+
+    synchronized HiscoreSnapshot get(Key key)
+    {
+        HiscoreSnapshot snapshot = entries.get(key);
+        if (snapshot == null || System.currentTimeMillis() - snapshot.getFetchedAt() > ttlMillis)
+        {
+            misses.incrementAndGet();
+            return null;
+        }
+
+        hits.incrementAndGet();
+        return snapshot;
+    }
+
+    /**
+     * Stores the snapshot unless the entry already holds one fetched later.
+     *
+     * @return false if a newer snapshot was kept
+     */
+    synchronized boolean put(Key key, HiscoreSnapshot snapshot)
+    {
+        HiscoreSnapshot existing = entries.get(key);
+        if (existing != null && existing.getFetchedAt() > snapshot.getFetchedAt())
+        {
+            return false;
+        }
+
+        entries.put(key, snapshot);
+        return true;
+    }
+
+    synchronized void clear()
+    {
+        entries.clear();
+    }
+
+    long getHits()
+    {
+        return hits.get();
+    }
+
+    long getMisses()
+    {
+        return misses.get();
+    }
+
+    @Value
+    static class Key
+    {
+        String playerName;
+        HiscoreEndpoint endpoint;
+
+        static Key of(String playerName, HiscoreEndpoint endpoint)
+        {
+            return new Key(Text.toJagexName(playerName).toLowerCase(Locale.ROOT), endpoint);
+        }
+    }
+}
@@ -0,0 +1,266 @@
+package com.helpmotivation;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import net.runelite.client.hiscore.HiscoreClient;
+import net.runelite.client.hiscore.HiscoreEndpoint;
+import net.runelite.client.hiscore.HiscoreResult;
+
+import java.io.IOException;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Single entry point for hiscore lookups. Results are served from {@link HiscoreCache} when
+ * possible, and concurrent lookups for the same player share one in-flight request.
+ * Lookups never block the calling thread; they are bounded by a timeout and can be cancelled.
+ * Requests that do reach the network pass a {@link TokenBucket} rate limit and a
+ * {@link CircuitBreaker}; when either refuses, the lookup fails fast with an
+ * {@link UnavailableException}. Group lookups draw on a bucket of their own, so a large group
+ * never starves the local player's lookups.
+ */
+@Slf4j
+class HiscoreService
+{
+    private static final long LOOKUP_TIMEOUT_SECONDS = 10;
+
+    // Bursts of up to 5 requests, then one every 12 seconds
+    private static final int RATE_LIMIT_BURST = 5;
+    private static final long RATE_LIMIT_REFILL_SECONDS = 12;
+
+    // Bursts of up to 5 group members, then one every 6 seconds
+    private static final int GROUP_RATE_LIMIT_BURST = 5;
+    private static final long GROUP_RATE_LIMIT_REFILL_SECONDS = 6;
+
+    /**
+     * Signals a lookup refused locally, without contacting the hiscores.
+     */
+    static class UnavailableException extends IOException
+    {
+        /**
+         * How long until the same lookup would be allowed, or 0 if it is refused until the
+         * hiscores recover.
+         */
+        @Getter
+        private final long retryAfterNanos;
+
+        UnavailableException(String message, long retryAfterNanos)
+        {
+            super(message);
+            this.retryAfterNanos = retryAfterNanos;
+        }
+    }
+
+    private final HiscoreClient hiscoreClient;
+    private final HiscoreCache cache = new HiscoreCache();
+    private final ConcurrentMap<HiscoreCache.Key, CompletableFuture<HiscoreSnapshot>> inFlight = new ConcurrentHashMap<>();
+    private final AtomicLong coalesced = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final TokenBucket rateLimiter = new TokenBucket(RATE_LIMIT_BURST, RATE_LIMIT_REFILL_SECONDS, TimeUnit.SECONDS);
+    private final TokenBucket groupRateLimiter = new TokenBucket(GROUP_RATE_LIMIT_BURST, GROUP_RATE_LIMIT_REFILL_SECONDS,
+        TimeUnit.SECONDS);
+    private final CircuitBreaker circuitBreaker = new CircuitBreaker();
+
+    private final LatencyHistogram lookupLatency;
+
+    private volatile Consumer<HiscoreSnapshot> snapshotListener;
+
+    HiscoreService(HiscoreClient hiscoreClient, Metrics metrics)
+    {
+        this.hiscoreClient = hiscoreClient;
+        this.lookupLatency = metrics.histogram("hiscore.lookup");
+        metrics.gauge("hiscore.cacheHits", cache::getHits);
+        metrics.gauge("hiscore.cacheMisses", cache::getMisses);
+        metrics.gauge("hiscore.coalesced", coalesced::get);
+        metrics.gauge("hiscore.rejected", rejected::get);
+    }
+
+    void setCacheTtl(long duration, TimeUnit unit)
+    {
+        cache.setTtl(duration, unit);
+    }
+
+    /**
+     * Registers a listener called with every snapshot fetched from the network, before the
+     * lookup's future completes.
+     */
+    void setSnapshotListener(Consumer<HiscoreSnapshot> listener)
+    {
+        snapshotListener = listener;
+    }
+
+    /**
+     * Registers a listener called whenever the circuit breaker changes state.
+     */
+    void setCircuitListener(Consumer<CircuitBreaker.State> listener)
+    {
+        circuitBreaker.setStateListener(listener);
+    }
+
+    /**
+     * Whether a lookup that misses the cache would currently be sent, rather than refused by the
+     * rate limiter or circuit breaker.
+     */
+    boolean isAvailable()
+    {
+        return circuitBreaker.isCallPermitted() && rateLimiter.hasToken();
+    }
+
+    /**
+     * Seeds the cache with a previously persisted snapshot. It is served like any other entry
+     * until its original fetch time falls outside the cache TTL. A newer cached snapshot, such
+     * as one from a login prefetch, is kept instead.
+     *
+     * @return false if the cache already held a newer snapshot
+     */
+    boolean prime(HiscoreSnapshot snapshot)
+    {
+        return cache.put(HiscoreCache.Key.of(snapshot.getPlayerName(), snapshot.getEndpoint()), snapshot);
+    }
+
+    CompletableFuture<HiscoreSnapshot> lookup(String playerName, HiscoreEndpoint endpoint)
+    {
+        return lookup(playerName, endpoint, rateLimiter);
+    }
+
+    /**
+     * Looks up another player for the group comparison, rate limited separately from the local
+     * player's lookups.
+     */
+    CompletableFuture<HiscoreSnapshot> lookupGroupMember(String playerName, HiscoreEndpoint endpoint)
+    {
+        return lookup(playerName, endpoint, groupRateLimiter);
+    }
+
+    private CompletableFuture<HiscoreSnapshot> lookup(String playerName, HiscoreEndpoint endpoint, TokenBucket bucket)
+    {
+        HiscoreCache.Key key = HiscoreCache.Key.of(playerName, endpoint);
+        HiscoreSnapshot cached = cache.get(key);
+        if (cached != null)
+        {
+            log.debug("Hiscore cache hit for {} (hits: {}, misses: {})", playerName, cache.getHits(), cache.getMisses());
+            return CompletableFuture.completedFuture(cached);
+        }
+
+        CompletableFuture<HiscoreSnapshot> future = new CompletableFuture<>();
+        CompletableFuture<HiscoreSnapshot> existing = inFlight.putIfAbsent(key, future);
+        if (existing != null)
+        {
+            log.debug("Joining in-flight hiscore lookup for {} (coalesced: {})", playerName, coalesced.incrementAndGet());
+            return existing;
+        }
+
+        UnavailableException refusal = acquire(bucket);
+        if (refusal != null)
+        {
+            inFlight.remove(key, future);
+            log.debug("Hiscore lookup for {} refused: {} (rejected: {})", playerName, refusal.getMessage(), rejected.incrementAndGet());
+            future.completeExceptionally(refusal);
+            return future;
+        }
+
+        log.debug("Hiscore cache miss for {} (hits: {}, misses: {})", playerName, cache.getHits(), cache.getMisses());
+        long start = System.nanoTime();
+        CompletableFuture<HiscoreResult> request = hiscoreClient.lookupAsync(playerName, endpoint);
+        request.orTimeout(LOOKUP_TIMEOUT_SECONDS, TimeUnit.SECONDS).whenComplete((result, ex) ->
+        {
+            HiscoreSnapshot snapshot = ex == null && result != null
+                ? HiscoreSnapshot.from(playerName, endpoint, result, System.currentTimeMillis())
+                : null;
+            if (snapshot != null)
+            {
+                // Cache before leaving the in-flight map, so a lookup arriving in between always
+                // finds one or the other
+                cache.put(key, snapshot);
+            }
+            inFlight.remove(key, future);
+
+            if (ex instanceof CancellationException)
+            {
+                circuitBreaker.releaseProbe();
+                return;
+            }
+
+            lookupLatency.recordSince(start);
+
+            if (ex != null)
+            {
+                circuitBreaker.recordFailure();
+                future.completeExceptionally(ex);
+                return;
+            }
+
+            circuitBreaker.recordSuccess();
+
+            // The listener goes first, so callers waiting on the lookup see the state it updates
+            Consumer<HiscoreSnapshot> listener = snapshotListener;
+            try
+            {
+                if (snapshot != null && listener != null)
+                {
+                    listener.accept(snapshot);
+                }
+            }
+            finally
+            {
+                future.complete(snapshot);
+            }
+        });
+
+        // Cancelling the shared future abandons the underlying request as well
+        future.whenComplete((result, ex) ->
+        {
+            if (future.isCancelled())
+            {
+                request.cancel(true);
+            }
+        });
+
+        return future;
+    }
+
+    /**
+     * Takes a token from the given bucket and passes the circuit breaker.
+     *
+     * @return why the request was refused, or null if it may be sent
+     */
+    private UnavailableException acquire(TokenBucket bucket)
+    {
+        if (!circuitBreaker.tryAcquire())
+        {
+            return new UnavailableException("hiscores unavailable", 0);
+        }
+
+        if (!bucket.tryAcquire())
+        {
+            circuitBreaker.releaseProbe();
+            return new UnavailableException("rate limited", Math.max(1, bucket.nanosUntilToken()));
+        }
+
+        return null;
+    }
+
+    /**
+     * Cancels every outstanding lookup. Callers waiting on them are completed with a
+     * {@link java.util.concurrent.CancellationException}.
+     */
+    void cancelAll()
+    {
+        for (CompletableFuture<HiscoreSnapshot> future : inFlight.values())
+        {
+            future.cancel(true);
+        }
+        inFlight.clear();
+    }
+
+    void clear()
+    {
+        cancelAll();
+        cache.clear();
+    }
+}
@@ -0,0 +1,219 @@
+package com.helpmotivation;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import net.runelite.api.Skill;
+import net.runelite.client.hiscore.HiscoreEndpoint;
+import net.runelite.client.hiscore.HiscoreResult;
+import net.runelite.client.hiscore.HiscoreSkill;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Base64;
+
+/**
+ * Immutable, compact copy of the skill part of a {@link HiscoreResult}, indexed by
+ * {@link Skill} ordinal. Snapshots can be encoded to a short string for persistence.
+ */
+@Slf4j
+final class HiscoreSnapshot
+{
+    private static final int VERSION = 2;
+    private static final Skill[] SKILLS = Skill.values();
+
+    @Getter
+    private final String playerName;
+
+    @Getter
+    private final HiscoreEndpoint endpoint;
+
+    @Getter
+    private final long fetchedAt;
+
+    private final int[] ranks;
+    private final int[] levels;
+    private final long[] xp;
+
+    private HiscoreSnapshot(String playerName, HiscoreEndpoint endpoint, long fetchedAt, int[] ranks, int[] levels, long[] xp)
+    {
+        this.playerName = playerName;
+        this.endpoint = endpoint;
+        this.fetchedAt = fetchedAt;
+        this.ranks = ranks;
+        this.levels = levels;
+        this.xp = xp;
+    }
+
+    static HiscoreSnapshot from(String playerName, HiscoreEndpoint endpoint, HiscoreResult result, long fetchedAt)
+    {
+        int[] ranks = new int[SKILLS.length];
+        int[] levels = new int[SKILLS.length];
+        long[] xp = new long[SKILLS.length];
+        Arrays.fill(ranks, -1);
+        Arrays.fill(xp, -1);
+
+        for (Skill skill : SKILLS)
+        {
+            HiscoreSkill hiscoreSkill = SkillMapping.toHiscoreSkill(skill);
+            if (hiscoreSkill == null)
+            {
+                continue;
+            }
+
+            net.runelite.client.hiscore.Skill hiscoreData = result.getSkill(hiscoreSkill);
+            if (hiscoreData != null)
+            {
+                int i = skill.ordinal();
+                ranks[i] = hiscoreData.getRank();
+                levels[i] = hiscoreData.getLevel();
+                xp[i] = hiscoreData.getExperience();
+            }
+        }
+
+        return new HiscoreSnapshot(playerName, endpoint, fetchedAt, ranks, levels, xp);
+    }
+
+    /**
+     * Rank for the skill, or -1 when the player is unranked or the skill is not on the hiscores.
+     */
+    int getRank(Skill skill)
+    {
+        return ranks[skill.ordinal()];
+    }
+
+    int getLevel(Skill skill)
+    {
+        return levels[skill.ordinal()];
+    }
+
+    long getXp(Skill skill)
+    {
+        return xp[skill.ordinal()];
+    }
+
+    /**
+     * Rank and XP changes from an earlier snapshot of the same player to this one.
+     */
+    SnapshotDiff diffSince(HiscoreSnapshot previous)
+    {
+        int[] rankDeltas = new int[SKILLS.length];
+        long[] xpDeltas = new long[SKILLS.length];
+        for (int i = 0; i < SKILLS.length; i++)
+        {
+            if (ranks[i] > 0 && previous.ranks[i] > 0)
+            {
+                rankDeltas[i] = previous.ranks[i] - ranks[i];
+            }
+            if (xp[i] >= 0 && previous.xp[i] >= 0)
+            {
+                xpDeltas[i] = xp[i] - previous.xp[i];
+            }
+        }
+        return new SnapshotDiff(previous.fetchedAt, rankDeltas, xpDeltas);
+    }
+
+    String encode()
+    {
+        try
+        {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(512);
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeByte(VERSION);
+            out.writeUTF(playerName);
+            out.writeUTF(endpoint.name());
+            out.writeLong(fetchedAt);
+
+            int count = 0;
+            for (int rank : ranks)
+            {
+                if (rank != -1)
+                {
+                    count++;
+                }
+            }
+
+            // Skills are stored by name so snapshots survive new skills being added to the enum
+            out.writeByte(count);
+            for (Skill skill : SKILLS)
+            {
+                int i = skill.ordinal();
+                if (ranks[i] != -1)
+                {
+                    out.writeUTF(skill.name());
+                    out.writeInt(ranks[i]);
+                    out.writeShort(levels[i]);
+                    out.writeLong(xp[i]);
+                }
+            }
+
+            out.flush();
+            return Base64.getEncoder().encodeToString(bytes.toByteArray());
+        }
+        catch (IOException e)
+        {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Decodes a snapshot written by {@link #encode()}, or returns null if it cannot be read.
+     */
+    static HiscoreSnapshot decode(String encoded)
+    {
+        if (encoded == null || encoded.isEmpty())
+        {
+            return null;
+        }
+
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(Base64.getDecoder().decode(encoded))))
+        {
+            int version = in.readUnsignedByte();
+            if (version < 1 || version > VERSION)
+            {
+                return null;
+            }
+
+            String playerName = in.readUTF();
+            // Version 1 predates per-endpoint lookups, when everything came from the normal hiscores
+            HiscoreEndpoint endpoint = version >= 2 ? HiscoreEndpoint.valueOf(in.readUTF()) : HiscoreEndpoint.NORMAL;
+            long fetchedAt = in.readLong();
+
+            int[] ranks = new int[SKILLS.length];
+            int[] levels = new int[SKILLS.length];
+            long[] xp = new long[SKILLS.length];
+            Arrays.fill(ranks, -1);
+            Arrays.fill(xp, -1);
+
+            int count = in.readUnsignedByte();
+            for (int n = 0; n < count; n++)
+            {
+                String name = in.readUTF();
+                int rank = in.readInt();
+                int level = in.readUnsignedShort();
+                long experience = in.readLong();
+
+                for (Skill skill : SKILLS)
+                {
+                    if (skill.name().equals(name))
+                    {
+                        ranks[skill.ordinal()] = rank;
+                        levels[skill.ordinal()] = level;
+                        xp[skill.ordinal()] = experience;
+                        break;
+                    }
+                }
+            }
+
+            return new HiscoreSnapshot(playerName, endpoint, fetchedAt, ranks, levels, xp);
+        }
+        catch (IOException | IllegalArgumentException e)
+        {
+            log.debug("Unable to decode hiscore snapshot", e);
+            return null;
+        }
+    }
+}
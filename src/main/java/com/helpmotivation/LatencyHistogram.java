@@ -0,0 +1,111 @@
+package com.helpmotivation;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free latency histogram with log-linear buckets in the style of HdrHistogram: values below
+ * 16 microseconds get a bucket each, and every power of two above that is split into 8 buckets,
+ * so any recorded value is reported within 12.5% of its true value. Recording is a handful of
+ * atomic increments and never allocates.
+ */
+class LatencyHistogram
+{
+    private static final int LINEAR_BUCKETS = 16;
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    // Up to 2^40 microseconds, about 12 days
+    private static final int MAX_EXPONENT = 40;
+    private static final int BUCKETS = LINEAR_BUCKETS + (MAX_EXPONENT - 3) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalMicros = new LongAdder();
+    private final AtomicLong maxMicros = new AtomicLong();
+
+    void recordNanos(long nanos)
+    {
+        long micros = Math.max(0, TimeUnit.NANOSECONDS.toMicros(nanos));
+        counts.incrementAndGet(bucketOf(micros));
+        count.increment();
+        totalMicros.add(micros);
+        maxMicros.accumulateAndGet(micros, Math::max);
+    }
+
+    /**
+     * Records the time elapsed since {@code startNanos}, a value from {@link System#nanoTime()}.
+     */
+    void recordSince(long startNanos)
+    {
+        recordNanos(System.nanoTime() - startNanos);
+    }
+
+    long getCount()
+    {
+        return count.sum();
+    }
+
+    long getMeanMicros()
+    {
+        long n = count.sum();
+        return n == 0 ? 0 : totalMicros.sum() / n;
+    }
+
+    long getMaxMicros()
+    {
+        return maxMicros.get();
+    }
+
+    /**
+     * The upper bound of the bucket holding the given percentile, in microseconds.
+     *
+     * @param percentile between 0 and 100
+     */
+    long getPercentileMicros(double percentile)
+    {
+        long n = count.sum();
+        if (n == 0)
+        {
+            return 0;
+        }
+
+        long target = Math.max(1, (long) Math.ceil(n * percentile / 100.0));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++)
+        {
+            seen += counts.get(i);
+            if (seen >= target)
+            {
+                return Math.min(upperBoundOf(i), maxMicros.get());
+            }
+        }
+        return maxMicros.get();
+    }
+
+    private static int bucketOf(long micros)
+    {
+        if (micros < LINEAR_BUCKETS)
+        {
+            return (int) micros;
+        }
+
+        int exponent = Math.min(MAX_EXPONENT, 63 - Long.numberOfLeadingZeros(micros));
+        int sub = (int) (micros >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return Math.min(BUCKETS - 1, LINEAR_BUCKETS + (exponent - 4) * SUB_BUCKETS + sub);
+    }
+
+    private static long upperBoundOf(int bucket)
+    {
+        if (bucket < LINEAR_BUCKETS)
+        {
+            return bucket;
+        }
+
+        int exponent = (bucket - LINEAR_BUCKETS) / SUB_BUCKETS + 4;
+        int sub = (bucket - LINEAR_BUCKETS) % SUB_BUCKETS;
+        long width = 1L << (exponent - SUB_BUCKET_BITS);
+        return (SUB_BUCKETS + sub) * width + width - 1;
+    }
+}
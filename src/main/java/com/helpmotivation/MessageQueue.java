@@ -0,0 +1,199 @@
+package com.helpmotivation;
+
+import lombok.Value;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Bounded queue of outgoing messages, filled from any thread and drained once per game tick on
+ * the client thread. Each channel delivers at most one message per drain and then rests for a
+ * few ticks, so back-to-back messages never overlap. Higher priorities go first; when the queue
+ * is full the newest message of the lowest priority makes way. A message identical to one
+ * already queued or recently delivered is dropped.
+ */
+class MessageQueue
+{
+    private static final int CAPACITY = 8;
+    private static final int RECENT_LIMIT = 32;
+    private static final long DEDUP_WINDOW_MILLIS = 10 * 60 * 1000;
+
+    enum Channel
+    {
+        CHAT(2),
+        // Overhead text stays up for 200 client cycles, about 4 seconds
+        OVERHEAD(7);
+
+        private final int restTicks;
+
+        Channel(int restTicks)
+        {
+            this.restTicks = restTicks;
+        }
+    }
+
+    /**
+     * In increasing order of importance.
+     */
+    enum Priority
+    {
+        QUOTE,
+        RANK_CHANGE,
+        MILESTONE
+    }
+
+    @Value
+    static class Message
+    {
+        String text;
+        Channel channel;
+        Priority priority;
+    }
+
+    @Value
+    private static class Delivered
+    {
+        String text;
+        Channel channel;
+        long at;
+    }
+
+    private final List<Message> queued = new ArrayList<>(CAPACITY);
+    private final Deque<Delivered> recent = new ArrayDeque<>();
+    private final int[] restingTicks = new int[Channel.values().length];
+
+    private final LongAdder delivered;
+    private final LongAdder duplicates;
+    private final LongAdder overflowed;
+
+    MessageQueue(Metrics metrics)
+    {
+        delivered = metrics.counter("messages.delivered");
+        duplicates = metrics.counter("messages.duplicate");
+        overflowed = metrics.counter("messages.overflowed");
+        metrics.gauge("messages.queued", this::size);
+    }
+
+    /**
+     * Queues a message for the next drain its channel is free for. Safe to call from any thread.
+     *
+     * @return false if the message was dropped as a duplicate or for lack of room
+     */
+    synchronized boolean offer(String text, Channel channel, Priority priority, long now)
+    {
+        if (isDuplicate(text, channel, now))
+        {
+            duplicates.increment();
+            return false;
+        }
+
+        if (queued.size() == CAPACITY)
+        {
+            // Sorted by descending priority, so the last message is the newest of the lowest
+            overflowed.increment();
+            if (queued.get(CAPACITY - 1).getPriority().compareTo(priority) >= 0)
+            {
+                return false;
+            }
+            queued.remove(CAPACITY - 1);
+        }
+
+        // Insert after everything of equal or higher priority, keeping arrival order within one
+        int index = queued.size();
+        while (index > 0 && queued.get(index - 1).getPriority().compareTo(priority) < 0)
+        {
+            index--;
+        }
+        queued.add(index, new Message(text, channel, priority));
+        return true;
+    }
+
+    /**
+     * Delivers at most one message per channel whose rest period is over. Called on the client
+     * thread every game tick.
+     */
+    synchronized void drain(long now, Consumer<Message> delivery)
+    {
+        for (int i = 0; i < restingTicks.length; i++)
+        {
+            if (restingTicks[i] > 0)
+            {
+                restingTicks[i]--;
+            }
+        }
+
+        if (queued.isEmpty())
+        {
+            return;
+        }
+
+        expireRecent(now);
+        Iterator<Message> it = queued.iterator();
+        while (it.hasNext())
+        {
+            Message message = it.next();
+            int channel = message.getChannel().ordinal();
+            if (restingTicks[channel] > 0)
+            {
+                continue;
+            }
+
+            it.remove();
+            restingTicks[channel] = message.getChannel().restTicks;
+            if (recent.size() == RECENT_LIMIT)
+            {
+                recent.removeFirst();
+            }
+            recent.addLast(new Delivered(message.getText(), message.getChannel(), now));
+            delivered.increment();
+            delivery.accept(message);
+        }
+    }
+
+    synchronized int size()
+    {
+        return queued.size();
+    }
+
+    synchronized void clear()
+    {
+        queued.clear();
+        recent.clear();
+        Arrays.fill(restingTicks, 0);
+    }
+
+    private boolean isDuplicate(String text, Channel channel, long now)
+    {
+        for (Message message : queued)
+        {
+            if (message.getChannel() == channel && message.getText().equals(text))
+            {
+                return true;
+            }
+        }
+
+        expireRecent(now);
+        for (Delivered message : recent)
+        {
+            if (message.getChannel() == channel && message.getText().equals(text))
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void expireRecent(long now)
+    {
+        while (!recent.isEmpty() && now - recent.peekFirst().getAt() > DEDUP_WINDOW_MILLIS)
+        {
+            recent.removeFirst();
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.helpmotivation;
+
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Drives the periodic motivational message. Each tick is scheduled one-shot after the previous
+ * one fired, so ticks never pile up. Whether a tick may go to the network is decided by
+ * {@link HiscoreService}; the scheduler only counts the outcomes.
+ */
+class MessageScheduler
+{
+    private final ScheduledExecutorService executor;
+    private final Runnable tick;
+
+    private final AtomicLong emitted = new AtomicLong();
+    private final AtomicLong skipped = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+
+    private ScheduledFuture<?> next;
+    private long intervalMillis;
+
+    MessageScheduler(ScheduledExecutorService executor, Runnable tick)
+    {
+        this.executor = executor;
+        this.tick = tick;
+    }
+
+    synchronized void start(long intervalMillis)
+    {
+        stop();
+        this.intervalMillis = intervalMillis;
+        next = executor.schedule(this::fire, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    synchronized void stop()
+    {
+        if (next != null)
+        {
+            next.cancel(false);
+            next = null;
+        }
+    }
+
+    private void fire()
+    {
+        synchronized (this)
+        {
+            if (next == null)
+            {
+                return;
+            }
+            next = executor.schedule(this::fire, intervalMillis, TimeUnit.MILLISECONDS);
+        }
+
+        tick.run();
+    }
+
+    void recordEmitted()
+    {
+        emitted.incrementAndGet();
+    }
+
+    void recordSkipped()
+    {
+        skipped.incrementAndGet();
+    }
+
+    void recordLookupFailure()
+    {
+        failed.incrementAndGet();
+    }
+
+    long getEmitted()
+    {
+        return emitted.get();
+    }
+
+    long getSkipped()
+    {
+        return skipped.get();
+    }
+
+    long getFailed()
+    {
+        return failed.get();
+    }
+}
@@ -0,0 +1,114 @@
+package com.helpmotivation;
+
+import com.google.gson.JsonObject;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Registry of the plugin's counters, gauges and latency histograms. Metrics are created once,
+ * typically into a field, and updated lock-free from then on; reading them for display or
+ * export never blocks writers.
+ */
+class Metrics
+{
+    private final Map<String, LongAdder> counters = new ConcurrentSkipListMap<>();
+    private final Map<String, LongSupplier> gauges = new ConcurrentSkipListMap<>();
+    private final Map<String, LatencyHistogram> histograms = new ConcurrentSkipListMap<>();
+
+    private final long startedAt = System.currentTimeMillis();
+
+    LongAdder counter(String name)
+    {
+        return counters.computeIfAbsent(name, k -> new LongAdder());
+    }
+
+    /**
+     * Registers a value owned elsewhere, such as a cache's hit count, to be read on demand.
+     */
+    void gauge(String name, LongSupplier value)
+    {
+        gauges.put(name, value);
+    }
+
+    LatencyHistogram histogram(String name)
+    {
+        return histograms.computeIfAbsent(name, k -> new LatencyHistogram());
+    }
+
+    /**
+     * Appends a human-readable summary, one metric per line.
+     */
+    void appendSummary(StringBuilder sb)
+    {
+        for (Map.Entry<String, LongAdder> counter : counters.entrySet())
+        {
+            sb.append(counter.getKey()).append(": ").append(counter.getValue().sum()).append('\n');
+        }
+        for (Map.Entry<String, LongSupplier> gauge : gauges.entrySet())
+        {
+            sb.append(gauge.getKey()).append(": ").append(gauge.getValue().getAsLong()).append('\n');
+        }
+        for (Map.Entry<String, LatencyHistogram> entry : histograms.entrySet())
+        {
+            LatencyHistogram histogram = entry.getValue();
+            sb.append(entry.getKey()).append(": n=").append(histogram.getCount());
+            if (histogram.getCount() > 0)
+            {
+                sb.append(" p50=");
+                appendMicros(sb, histogram.getPercentileMicros(50));
+                sb.append(" p99=");
+                appendMicros(sb, histogram.getPercentileMicros(99));
+                sb.append(" max=");
+                appendMicros(sb, histogram.getMaxMicros());
+            }
+            sb.append('\n');
+        }
+    }
+
+    JsonObject toJson()
+    {
+        JsonObject json = new JsonObject();
+        json.addProperty("startedAt", startedAt);
+        json.addProperty("exportedAt", System.currentTimeMillis());
+
+        JsonObject counterJson = new JsonObject();
+        counters.forEach((name, counter) -> counterJson.addProperty(name, counter.sum()));
+        gauges.forEach((name, gauge) -> counterJson.addProperty(name, gauge.getAsLong()));
+        json.add("counters", counterJson);
+
+        JsonObject histogramJson = new JsonObject();
+        histograms.forEach((name, histogram) ->
+        {
+            JsonObject h = new JsonObject();
+            h.addProperty("count", histogram.getCount());
+            h.addProperty("meanMicros", histogram.getMeanMicros());
+            h.addProperty("p50Micros", histogram.getPercentileMicros(50));
+            h.addProperty("p90Micros", histogram.getPercentileMicros(90));
+            h.addProperty("p99Micros", histogram.getPercentileMicros(99));
+            h.addProperty("maxMicros", histogram.getMaxMicros());
+            histogramJson.add(name, h);
+        });
+        json.add("histograms", histogramJson);
+
+        return json;
+    }
+
+    private static void appendMicros(StringBuilder sb, long micros)
+    {
+        if (micros >= 1_000_000)
+        {
+            sb.append(micros / 1_000_000).append('.').append(micros / 100_000 % 10).append('s');
+        }
+        else if (micros >= 1_000)
+        {
+            sb.append(micros / 1_000).append('.').append(micros / 100 % 10).append("ms");
+        }
+        else
+        {
+            sb.append(micros).append("us");
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.helpmotivation;
+
+import net.runelite.api.Skill;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * The active quote set, compiled from the custom quotes config whenever it changes.
+ */
+class MotivationQuotes
+{
+    private static final String[] DEFAULT_QUOTES = {
+        "Are you touching grass too often?",
+        "{?rank:Rank {rank} and not getting better. Grats!}{!rank:Not even ranked. Grats!}",
+        "Get that XP, the grind doesn't stop.",
+        "Your grandmother has a higher rank than this.",
+        "Only {xpTo99} XP to go. Better get started.",
+        "{?rankWeek:{rankWeek} ranks this week. Is that it?}{!rankWeek:Another week, another excuse.}",
+        "{?timeTo99:{xpRate} XP an hour. See you at 99 in {timeTo99}.}{!timeTo99:Not a single XP this session. Bold strategy.}"
+    };
+
+    private static final ThreadLocal<StringBuilder> BUFFER = ThreadLocal.withInitial(() -> new StringBuilder(128));
+    private static final ThreadLocal<QuoteContext> CONTEXT = ThreadLocal.withInitial(QuoteContext::new);
+
+    private volatile QuoteTemplate[] templates = compileAll(DEFAULT_QUOTES);
+
+    void compile(String customQuotes)
+    {
+        List<String> quotes = new ArrayList<>();
+
+        if (customQuotes != null)
+        {
+            for (String q : customQuotes.split("\\r?\\n|\\\\n"))
+            {
+                if (!q.trim().isEmpty())
+                {
+                    quotes.add(q.trim());
+                }
+            }
+        }
+
+        templates = compileAll(quotes.isEmpty() ? DEFAULT_QUOTES : quotes.toArray(new String[0]));
+    }
+
+    /**
+     * Returns this thread's reusable context, reset for the given skill and level. Fill in the
+     * remaining values and pass it to {@link #format(QuoteContext)}.
+     */
+    QuoteContext context(Skill skill, int level)
+    {
+        return CONTEXT.get().reset(SkillMapping.getDisplayName(skill), level);
+    }
+
+    /**
+     * Builds a message such as {@code Level 12 Agility... <quote>} using a random quote from the
+     * active set.
+     */
+    String format(QuoteContext context)
+    {
+        QuoteTemplate[] active = templates;
+        QuoteTemplate template = active[ThreadLocalRandom.current().nextInt(active.length)];
+
+        StringBuilder sb = BUFFER.get();
+        sb.setLength(0);
+        sb.append("Level ");
+        context.append(sb, QuoteContext.Field.LEVEL);
+        sb.append(' ');
+        context.append(sb, QuoteContext.Field.SKILL);
+        sb.append("... ");
+        template.render(sb, context);
+        return sb.toString();
+    }
+
+    /**
+     * Builds a rank change message such as
+     * {@code Agility: +1,204 ranks since yesterday (+45,310 xp)}, leaving out the XP when none
+     * was gained.
+     */
+    String formatRankChange(Skill skill, SnapshotDiff diff, long now)
+    {
+        int delta = diff.getRankDelta(skill);
+        StringBuilder sb = BUFFER.get();
+        sb.setLength(0);
+        sb.append(SkillMapping.getDisplayName(skill)).append(": ").append(delta >= 0 ? '+' : '-');
+        QuoteTemplate.appendGrouped(sb, Math.abs((long) delta));
+        sb.append(Math.abs(delta) == 1 ? " rank " : " ranks ");
+        diff.appendPeriod(sb, now);
+        long xpDelta = diff.getXpDelta(skill);
+        if (xpDelta > 0)
+        {
+            sb.append(" (+");
+            QuoteTemplate.appendGrouped(sb, xpDelta);
+            sb.append(" xp)");
+        }
+        sb.append(delta >= 0 ? ". Don't get used to it." : ". Impressive, in the wrong direction.");
+        return sb.toString();
+    }
+
+    private static QuoteTemplate[] compileAll(String[] quotes)
+    {
+        QuoteTemplate[] compiled = new QuoteTemplate[quotes.length];
+        for (int i = 0; i < quotes.length; i++)
+        {
+            compiled[i] = QuoteTemplate.compile(quotes[i]);
+        }
+        return compiled;
+    }
+}
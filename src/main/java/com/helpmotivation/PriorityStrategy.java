@@ -0,0 +1,80 @@
+package com.helpmotivation;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import net.runelite.api.Experience;
+
+/**
+ * How skills are ranked for messages and the panel. Each strategy maps a skill's current values
+ * to a score; the lowest score is the skill most in need of attention. Ties fall back to skill
+ * order.
+ */
+@Getter
+@RequiredArgsConstructor
+public enum PriorityStrategy
+{
+    LOWEST_LEVEL("Lowest level", false, false)
+        {
+            @Override
+            long score(int level, int xp, int rank, long xpPerHour, int goalLevel)
+            {
+                return byLevel(level, xp);
+            }
+        },
+    WORST_RANK("Worst rank", true, false)
+        {
+            @Override
+            long score(int level, int xp, int rank, long xpPerHour, int goalLevel)
+            {
+                // Unranked sorts before every ranked skill
+                return -(rank > 0 ? rank : Integer.MAX_VALUE);
+            }
+        },
+    SLOWEST_RATE("Slowest XP rate", false, true)
+        {
+            @Override
+            long score(int level, int xp, int rank, long xpPerHour, int goalLevel)
+            {
+                // Untrained skills first, and among equal rates the lowest level
+                return (Math.max(0, xpPerHour) << 7) | level;
+            }
+        },
+    GOALS("Furthest from goal", false, false)
+        {
+            @Override
+            long score(int level, int xp, int rank, long xpPerHour, int goalLevel)
+            {
+                if (goalLevel > level)
+                {
+                    // Skills with an unmet goal come first, the most XP away leading
+                    return -(Experience.getXpForLevel(goalLevel) - (long) xp);
+                }
+                return byLevel(level, xp);
+            }
+        };
+
+    private final String name;
+
+    /**
+     * Whether scores depend on hiscore ranks, and so change whenever a new snapshot arrives.
+     */
+    private final boolean rankBased;
+
+    /**
+     * Whether scores depend on XP rates, and so drift as time passes without any XP gained.
+     */
+    private final boolean rateBased;
+
+    abstract long score(int level, int xp, int rank, long xpPerHour, int goalLevel);
+
+    private static long byLevel(int level, int xp)
+    {
+        return ((long) level << 32) | xp;
+    }
+
+    @Override
+    public String toString()
+    {
+        return name;
+    }
+}
@@ -0,0 +1,183 @@
+package com.helpmotivation;
+
+/**
+ * Values available to {@link QuoteTemplate} placeholders. Instances are mutable and reused per
+ * thread by {@link MotivationQuotes}; they are never shared across threads.
+ */
+final class QuoteContext
+{
+    enum Field
+    {
+        SKILL("skill"),
+        LEVEL("level"),
+        RANK("rank"),
+        XP_TO_99("xpTo99"),
+        PERCENT("percent"),
+        RANK_DELTA("rankDelta"),
+        RANK_WEEK("rankWeek"),
+        XP_RATE("xpRate"),
+        TIME_TO_99("timeTo99");
+
+        static final Field[] VALUES = values();
+
+        private final String key;
+
+        Field(String key)
+        {
+            this.key = key;
+        }
+
+        static Field byName(String name)
+        {
+            for (Field field : VALUES)
+            {
+                if (field.key.equals(name))
+                {
+                    return field;
+                }
+            }
+            return null;
+        }
+    }
+
+    private String skillName;
+    private int level;
+    private int xp = -1;
+    private int rank = -1;
+    private int rankDelta;
+    private int rankWeek;
+    private long xpPerHour;
+
+    QuoteContext reset(String skillName, int level)
+    {
+        this.skillName = skillName;
+        this.level = level;
+        this.xp = -1;
+        this.rank = -1;
+        this.rankDelta = 0;
+        this.rankWeek = 0;
+        this.xpPerHour = 0;
+        return this;
+    }
+
+    QuoteContext xp(int xp)
+    {
+        this.xp = xp;
+        return this;
+    }
+
+    QuoteContext rank(int rank)
+    {
+        this.rank = rank;
+        return this;
+    }
+
+    /**
+     * Ranks gained since the previous lookup; negative when the player dropped.
+     */
+    QuoteContext rankDelta(int rankDelta)
+    {
+        this.rankDelta = rankDelta;
+        return this;
+    }
+
+    /**
+     * Ranks gained over the past week according to the local rank history.
+     */
+    QuoteContext rankWeek(int rankWeek)
+    {
+        this.rankWeek = rankWeek;
+        return this;
+    }
+
+    /**
+     * Session XP rate in the skill; 0 when the player has not trained it recently.
+     */
+    QuoteContext xpPerHour(long xpPerHour)
+    {
+        this.xpPerHour = xpPerHour;
+        return this;
+    }
+
+    boolean has(Field field)
+    {
+        switch (field)
+        {
+            case RANK:
+                return rank > 0;
+            case XP_TO_99:
+            case PERCENT:
+                return xp >= 0;
+            case RANK_DELTA:
+                return rankDelta != 0;
+            case RANK_WEEK:
+                return rankWeek != 0;
+            case XP_RATE:
+                return xpPerHour > 0;
+            case TIME_TO_99:
+                return xpPerHour > 0 && xp >= 0;
+            default:
+                return true;
+        }
+    }
+
+    void append(StringBuilder sb, Field field)
+    {
+        switch (field)
+        {
+            case SKILL:
+                sb.append(skillName);
+                break;
+            case LEVEL:
+                sb.append(level);
+                break;
+            case RANK:
+                if (rank > 0)
+                {
+                    QuoteTemplate.appendGrouped(sb, rank);
+                }
+                else
+                {
+                    sb.append("unranked");
+                }
+                break;
+            case XP_TO_99:
+                QuoteTemplate.appendGrouped(sb, Math.max(0, XpRateTracker.XP_99 - Math.max(xp, 0)));
+                break;
+            case PERCENT:
+            {
+                int tenths = (int) (Math.max(xp, 0) * 1000L / XpRateTracker.XP_99);
+                sb.append(tenths / 10).append('.').append(tenths % 10).append('%');
+                break;
+            }
+            case RANK_DELTA:
+                appendSigned(sb, rankDelta);
+                break;
+            case RANK_WEEK:
+                appendSigned(sb, rankWeek);
+                break;
+            case XP_RATE:
+                QuoteTemplate.appendGrouped(sb, xpPerHour);
+                break;
+            case TIME_TO_99:
+            {
+                long millis = XpRateTracker.millisTo99(Math.max(xp, 0), xpPerHour);
+                if (millis >= 0)
+                {
+                    XpRateTracker.appendDuration(sb, millis);
+                }
+                else
+                {
+                    sb.append("forever");
+                }
+                break;
+            }
+        }
+    }
+
+    private static void appendSigned(StringBuilder sb, int value)
+    {
+        sb.append(value >= 0 ? '+' : '-');
+        QuoteTemplate.appendGrouped(sb, Math.abs((long) value));
+    }
+}
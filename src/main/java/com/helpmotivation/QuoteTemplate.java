@@ -0,0 +1,229 @@
+package com.helpmotivation;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * A quote compiled once from its source text into a flat list of ops.
+ * <p>
+ * Supported syntax:
+ * <ul>
+ * <li>{@code {skill}}, {@code {level}}, {@code {rank}}, {@code {xpTo99}}, {@code {percent}},
+ * {@code {rankDelta}}, {@code {rankWeek}} - replaced with the value from the {@link QuoteContext}</li>
+ * <li>{@code %s} and {@code %d} - aliases for {@code {rank}}</li>
+ * <li>{@code {?name:text}} - renders {@code text} only when {@code name} has a value</li>
+ * <li>{@code {!name:text}} - renders {@code text} only when {@code name} has no value</li>
+ * </ul>
+ * Conditional segments may contain placeholders and further conditionals. Anything that does not
+ * parse as one of the above is kept as literal text.
+ */
+final class QuoteTemplate
+{
+    private static final int OP_LITERAL = 0;
+    private static final int OP_VALUE = 1;
+    private static final int OP_JUMP_IF_ABSENT = 2;
+    private static final int OP_JUMP_IF_PRESENT = 3;
+
+    private final String source;
+    private final String[] literals;
+    // Each op is three ints: opcode, operand, jump target
+    private final int[] ops;
+
+    private QuoteTemplate(String source, String[] literals, int[] ops)
+    {
+        this.source = source;
+        this.literals = literals;
+        this.ops = ops;
+    }
+
+    static QuoteTemplate compile(String source)
+    {
+        Compiler compiler = new Compiler(source);
+        compiler.run();
+        return new QuoteTemplate(source, compiler.literals.toArray(new String[0]), Arrays.copyOf(compiler.ops, compiler.size));
+    }
+
+    void render(StringBuilder sb, QuoteContext context)
+    {
+        int pc = 0;
+        while (pc < ops.length)
+        {
+            int operand = ops[pc + 1];
+            switch (ops[pc])
+            {
+                case OP_LITERAL:
+                    sb.append(literals[operand]);
+                    break;
+                case OP_VALUE:
+                    context.append(sb, QuoteContext.Field.VALUES[operand]);
+                    break;
+                case OP_JUMP_IF_ABSENT:
+                    if (!context.has(QuoteContext.Field.VALUES[operand]))
+                    {
+                        pc = ops[pc + 2];
+                        continue;
+                    }
+                    break;
+                case OP_JUMP_IF_PRESENT:
+                    if (context.has(QuoteContext.Field.VALUES[operand]))
+                    {
+                        pc = ops[pc + 2];
+                        continue;
+                    }
+                    break;
+            }
+            pc += 3;
+        }
+    }
+
+    @Override
+    public String toString()
+    {
+        return source;
+    }
+
+    /**
+     * Appends a non-negative number with US-style thousands separators, without allocating.
+     */
+    static void appendGrouped(StringBuilder sb, long value)
+    {
+        if (value < 1000)
+        {
+            sb.append(value);
+            return;
+        }
+
+        appendGrouped(sb, value / 1000);
+        sb.append(',');
+
+        long group = value % 1000;
+        if (group < 100)
+        {
+            sb.append('0');
+        }
+        if (group < 10)
+        {
+            sb.append('0');
+        }
+        sb.append(group);
+    }
+
+    private static final class Compiler
+    {
+        private final String source;
+        private final List<String> literals = new ArrayList<>();
+        private final StringBuilder pending = new StringBuilder();
+        private final Deque<Integer> openConditionals = new ArrayDeque<>();
+        private int[] ops = new int[24];
+        private int size;
+
+        Compiler(String source)
+        {
+            this.source = source;
+        }
+
+        void run()
+        {
+            int i = 0;
+            while (i < source.length())
+            {
+                char c = source.charAt(i);
+
+                if (c == '%' && i + 1 < source.length() && (source.charAt(i + 1) == 's' || source.charAt(i + 1) == 'd'))
+                {
+                    emitValue(QuoteContext.Field.RANK);
+                    i += 2;
+                }
+                else if (c == '{')
+                {
+                    i = parseBrace(i);
+                }
+                else if (c == '}' && !openConditionals.isEmpty())
+                {
+                    flushLiteral();
+                    ops[openConditionals.pop() + 2] = size;
+                    i++;
+                }
+                else
+                {
+                    pending.append(c);
+                    i++;
+                }
+            }
+
+            // Unterminated conditionals run to the end of the quote
+            while (!openConditionals.isEmpty())
+            {
+                flushLiteral();
+                ops[openConditionals.pop() + 2] = size;
+            }
+            flushLiteral();
+        }
+
+        private int parseBrace(int start)
+        {
+            int i = start + 1;
+            boolean conditional = i < source.length() && (source.charAt(i) == '?' || source.charAt(i) == '!');
+            if (conditional)
+            {
+                i++;
+            }
+
+            int nameStart = i;
+            while (i < source.length() && Character.isLetterOrDigit(source.charAt(i)))
+            {
+                i++;
+            }
+
+            QuoteContext.Field field = QuoteContext.Field.byName(source.substring(nameStart, i));
+            char terminator = conditional ? ':' : '}';
+            if (field == null || i >= source.length() || source.charAt(i) != terminator)
+            {
+                pending.append('{');
+                return start + 1;
+            }
+
+            if (conditional)
+            {
+                flushLiteral();
+                openConditionals.push(size);
+                emit(source.charAt(start + 1) == '?' ? OP_JUMP_IF_ABSENT : OP_JUMP_IF_PRESENT, field.ordinal());
+            }
+            else
+            {
+                emitValue(field);
+            }
+            return i + 1;
+        }
+
+        private void emitValue(QuoteContext.Field field)
+        {
+            flushLiteral();
+            emit(OP_VALUE, field.ordinal());
+        }
+
+        private void flushLiteral()
+        {
+            if (pending.length() > 0)
+            {
+                literals.add(pending.toString());
+                pending.setLength(0);
+                emit(OP_LITERAL, literals.size() - 1);
+            }
+        }
+
+        private void emit(int opcode, int operand)
+        {
+            if (size + 3 > ops.length)
+            {
+                ops = Arrays.copyOf(ops, ops.length * 2);
+            }
+            ops[size++] = opcode;
+            ops[size++] = operand;
+            ops[size++] = -1;
+        }
+    }
+}
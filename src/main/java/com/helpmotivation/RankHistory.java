@@ -0,0 +1,368 @@
+package com.helpmotivation;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import net.runelite.api.Skill;
+import net.runelite.client.hiscore.HiscoreEndpoint;
+import net.runelite.client.util.Text;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Append-only history of ranks and experience for one player on one hiscore ladder, stored in a
+ * memory-mapped file.
+ * <p>
+ * Each sample is the time and every skill's rank and experience, written as zig-zag varint
+ * deltas against the previous sample, so an unchanged skill costs two bytes. When the file fills
+ * up, samples older than {@link #RETENTION_DAYS} are dropped and those older than
+ * {@link #FULL_RESOLUTION_HOURS} are thinned to one per {@link #DOWNSAMPLE_HOURS}.
+ */
+@Slf4j
+class RankHistory
+{
+    private static final int MAGIC = 0x484D5248;
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 16;
+    private static final int CAPACITY = 128 * 1024;
+
+    private static final long MIN_SAMPLE_INTERVAL_SECONDS = TimeUnit.MINUTES.toSeconds(10);
+    private static final long FULL_RESOLUTION_HOURS = 48;
+    private static final long DOWNSAMPLE_HOURS = 6;
+    private static final long RETENTION_DAYS = 90;
+
+    private static final Skill[] SKILLS = Skill.values();
+    private static final int SKILL_COUNT = SKILLS.length;
+
+    @Getter
+    private final HiscoreEndpoint endpoint;
+
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final ByteBuffer scratch = ByteBuffer.allocate(10 + SKILL_COUNT * 20);
+
+    // Decoded samples; ranks and xp are flattened as [sample * SKILL_COUNT + skill ordinal]
+    private long[] times = new long[64];
+    private int[] ranks = new int[64 * SKILL_COUNT];
+    private long[] xp = new long[64 * SKILL_COUNT];
+    private int size;
+
+    private RankHistory(HiscoreEndpoint endpoint, FileChannel channel, MappedByteBuffer buffer)
+    {
+        this.endpoint = endpoint;
+        this.channel = channel;
+        this.buffer = buffer;
+    }
+
+    /**
+     * Opens the history for the player's ranks on the given ladder. The main ladder keeps the
+     * plain {@code name.bin} file; every other ladder gets {@code name.endpoint.bin}.
+     */
+    static RankHistory open(File directory, String playerName, HiscoreEndpoint endpoint) throws IOException
+    {
+        if (!directory.exists() && !directory.mkdirs())
+        {
+            throw new IOException("Unable to create " + directory);
+        }
+
+        String fileName = Text.toJagexName(playerName).toLowerCase(Locale.ROOT).replace(' ', '_');
+        if (endpoint != HiscoreEndpoint.NORMAL)
+        {
+            fileName += "." + endpoint.name().toLowerCase(Locale.ROOT);
+        }
+        fileName += ".bin";
+        FileChannel channel = FileChannel.open(new File(directory, fileName).toPath(),
+            StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+
+        RankHistory history = new RankHistory(endpoint, channel, channel.map(FileChannel.MapMode.READ_WRITE, 0, CAPACITY));
+        history.load();
+        return history;
+    }
+
+    /**
+     * Appends a sample for the snapshot. Snapshots taken within a few minutes of the previous
+     * sample are skipped unless something changed.
+     */
+    synchronized void record(HiscoreSnapshot snapshot)
+    {
+        long time = TimeUnit.MILLISECONDS.toSeconds(snapshot.getFetchedAt());
+        int base = size * SKILL_COUNT;
+        ensureCapacity(size + 1);
+
+        boolean changed = size == 0;
+        for (Skill skill : SKILLS)
+        {
+            int i = base + skill.ordinal();
+            ranks[i] = snapshot.getRank(skill);
+            xp[i] = snapshot.getXp(skill);
+            if (!changed)
+            {
+                changed = ranks[i] != ranks[i - SKILL_COUNT] || xp[i] != xp[i - SKILL_COUNT];
+            }
+        }
+
+        if (size > 0 && (time <= times[size - 1] || (!changed && time - times[size - 1] < MIN_SAMPLE_INTERVAL_SECONDS)))
+        {
+            return;
+        }
+
+        times[size++] = time;
+
+        encode(size - 1);
+        if (scratch.remaining() > buffer.remaining())
+        {
+            compact();
+            return;
+        }
+
+        buffer.put(scratch);
+        writeHeader();
+    }
+
+    /**
+     * Ranks gained in the skill over roughly the given window, measured from the newest sample
+     * back to the last sample at least that old (or the oldest sample). Negative when ranks were
+     * lost and 0 when there is not enough history.
+     */
+    synchronized int getRankChange(Skill skill, long window, TimeUnit unit)
+    {
+        if (size < 2)
+        {
+            return 0;
+        }
+
+        int baseline = indexAtOrBefore(times[size - 1] - unit.toSeconds(window));
+        int current = ranks[(size - 1) * SKILL_COUNT + skill.ordinal()];
+        int previous = ranks[baseline * SKILL_COUNT + skill.ordinal()];
+        return current > 0 && previous > 0 ? previous - current : 0;
+    }
+
+    synchronized void close()
+    {
+        try
+        {
+            buffer.force();
+            channel.close();
+        }
+        catch (IOException e)
+        {
+            log.warn("Unable to close rank history", e);
+        }
+    }
+
+    private int indexAtOrBefore(long time)
+    {
+        int index = Arrays.binarySearch(times, 0, size, time);
+        if (index >= 0)
+        {
+            return index;
+        }
+
+        int insertion = -index - 1;
+        return Math.max(0, insertion - 1);
+    }
+
+    private void load()
+    {
+        try
+        {
+            decode();
+        }
+        catch (RuntimeException e)
+        {
+            log.warn("Discarding unreadable rank history", e);
+            size = 0;
+            buffer.position(HEADER_SIZE);
+            writeHeader();
+        }
+    }
+
+    private void decode()
+    {
+        if (buffer.getInt(0) != MAGIC || buffer.get(4) != VERSION || buffer.getShort(6) != SKILL_COUNT)
+        {
+            // New file, or one written for a different set of skills
+            size = 0;
+            buffer.position(HEADER_SIZE);
+            writeHeader();
+            return;
+        }
+
+        int end = buffer.getInt(8);
+        int count = buffer.getInt(12);
+        buffer.position(HEADER_SIZE);
+
+        for (int n = 0; n < count && buffer.position() < end; n++)
+        {
+            ensureCapacity(size + 1);
+            int base = size * SKILL_COUNT;
+            times[size] = (size == 0 ? 0 : times[size - 1]) + readVarLong(buffer);
+            for (int s = 0; s < SKILL_COUNT; s++)
+            {
+                int previousRank = size == 0 ? 0 : ranks[base - SKILL_COUNT + s];
+                long previousXp = size == 0 ? 0 : xp[base - SKILL_COUNT + s];
+                ranks[base + s] = (int) (previousRank + readVarLong(buffer));
+                xp[base + s] = previousXp + readVarLong(buffer);
+            }
+            size++;
+        }
+
+        buffer.position(end);
+        compact();
+    }
+
+    /**
+     * Drops expired samples, thins out old ones and rewrites the whole file.
+     */
+    private void compact()
+    {
+        if (size == 0)
+        {
+            return;
+        }
+
+        long newest = times[size - 1];
+        long retentionStart = newest - TimeUnit.DAYS.toSeconds(RETENTION_DAYS);
+        long fullResolutionStart = newest - TimeUnit.HOURS.toSeconds(FULL_RESOLUTION_HOURS);
+        long bucket = TimeUnit.HOURS.toSeconds(DOWNSAMPLE_HOURS);
+
+        int kept = 0;
+        for (int i = 0; i < size; i++)
+        {
+            long time = times[i];
+            if (time < retentionStart)
+            {
+                continue;
+            }
+
+            if (time < fullResolutionStart && kept > 0 && times[kept - 1] / bucket == time / bucket)
+            {
+                // Keep the latest sample of each bucket
+                kept--;
+            }
+
+            moveSample(i, kept++);
+        }
+        size = kept;
+
+        rewrite();
+        if (buffer.position() > CAPACITY * 3 / 4)
+        {
+            // Still nearly full after thinning; give up the oldest half
+            dropOldest(size / 2);
+            rewrite();
+        }
+    }
+
+    private void rewrite()
+    {
+        for (;;)
+        {
+            buffer.position(HEADER_SIZE);
+            int written = 0;
+            for (; written < size; written++)
+            {
+                encode(written);
+                if (scratch.remaining() > buffer.remaining())
+                {
+                    break;
+                }
+                buffer.put(scratch);
+            }
+
+            if (written == size)
+            {
+                break;
+            }
+            dropOldest(Math.max(1, size / 2));
+        }
+        writeHeader();
+    }
+
+    private void dropOldest(int count)
+    {
+        for (int i = count; i < size; i++)
+        {
+            moveSample(i, i - count);
+        }
+        size -= count;
+    }
+
+    private void moveSample(int from, int to)
+    {
+        if (from != to)
+        {
+            times[to] = times[from];
+            System.arraycopy(ranks, from * SKILL_COUNT, ranks, to * SKILL_COUNT, SKILL_COUNT);
+            System.arraycopy(xp, from * SKILL_COUNT, xp, to * SKILL_COUNT, SKILL_COUNT);
+        }
+    }
+
+    private void encode(int index)
+    {
+        int base = index * SKILL_COUNT;
+        scratch.clear();
+        writeVarLong(scratch, times[index] - (index == 0 ? 0 : times[index - 1]));
+        for (int s = 0; s < SKILL_COUNT; s++)
+        {
+            int previousRank = index == 0 ? 0 : ranks[base - SKILL_COUNT + s];
+            long previousXp = index == 0 ? 0 : xp[base - SKILL_COUNT + s];
+            writeVarLong(scratch, ranks[base + s] - previousRank);
+            writeVarLong(scratch, xp[base + s] - previousXp);
+        }
+        scratch.flip();
+    }
+
+    private void writeHeader()
+    {
+        buffer.putInt(0, MAGIC);
+        buffer.put(4, (byte) VERSION);
+        buffer.putShort(6, (short) SKILL_COUNT);
+        buffer.putInt(8, buffer.position());
+        buffer.putInt(12, size);
+    }
+
+    private void ensureCapacity(int samples)
+    {
+        if (samples > times.length)
+        {
+            int length = Math.max(samples, times.length * 2);
+            times = Arrays.copyOf(times, length);
+            ranks = Arrays.copyOf(ranks, length * SKILL_COUNT);
+            xp = Arrays.copyOf(xp, length * SKILL_COUNT);
+        }
+    }
+
+    private static void writeVarLong(ByteBuffer out, long value)
+    {
+        long zigzag = (value << 1) ^ (value >> 63);
+        while ((zigzag & ~0x7FL) != 0)
+        {
+            out.put((byte) ((zigzag & 0x7F) | 0x80));
+            zigzag >>>= 7;
+        }
+        out.put((byte) zigzag);
+    }
+
+    private static long readVarLong(ByteBuffer in)
+    {
+        long zigzag = 0;
+        int shift = 0;
+        byte b;
+        do
+        {
+            b = in.get();
+            zigzag |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        }
+        while ((b & 0x80) != 0);
+        return (zigzag >>> 1) ^ -(zigzag & 1);
+    }
+}
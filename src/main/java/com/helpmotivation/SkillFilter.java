@@ -0,0 +1,88 @@
+package com.helpmotivation;
+
+import net.runelite.api.Skill;
+
+/**
+ * The skills left out of messages, the panel and rank announcements, as one bit per
+ * {@link Skill} ordinal. Compiled from the config when it changes, so checking a skill is a
+ * shift and a mask.
+ */
+final class SkillFilter
+{
+    static final SkillFilter NONE = new SkillFilter(0);
+
+    private final long excluded;
+
+    private SkillFilter(long excluded)
+    {
+        this.excluded = excluded;
+    }
+
+    /**
+     * Starts from the preset's exclusions, adds the listed excluded skills, then removes the
+     * listed included ones, so an include always wins.
+     *
+     * @param exclude skill names, comma or line separated
+     * @param include skill names, comma or line separated
+     */
+    static SkillFilter compile(SkillPreset preset, String exclude, String include)
+    {
+        long mask = 0;
+        for (Skill skill : preset.getExcluded())
+        {
+            mask |= bit(skill);
+        }
+        mask |= parse(exclude);
+        mask &= ~parse(include);
+        return mask == 0 ? NONE : new SkillFilter(mask);
+    }
+
+    boolean excludes(Skill skill)
+    {
+        return (excluded >>> skill.ordinal() & 1) != 0;
+    }
+
+    boolean excludes(int ordinal)
+    {
+        return (excluded >>> ordinal & 1) != 0;
+    }
+
+    /**
+     * The skill with the given display name, ignoring case, or null. Overall is never matched.
+     */
+    static Skill skillNamed(String name)
+    {
+        for (Skill skill : Skill.values())
+        {
+            if (skill != Skill.OVERALL && skill.getName().equalsIgnoreCase(name))
+            {
+                return skill;
+            }
+        }
+        return null;
+    }
+
+    private static long parse(String value)
+    {
+        long mask = 0;
+        if (value == null)
+        {
+            return mask;
+        }
+
+        for (String name : value.split("[,\\r\\n]+"))
+        {
+            Skill skill = skillNamed(name.trim());
+            if (skill != null)
+            {
+                mask |= bit(skill);
+            }
+        }
+        return mask;
+    }
+
+    private static long bit(Skill skill)
+    {
+        return 1L << skill.ordinal();
+    }
+}
@@ -0,0 +1,140 @@
+package com.helpmotivation;
+
+import lombok.extern.slf4j.Slf4j;
+import net.runelite.api.Skill;
+import net.runelite.client.util.ImageUtil;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.Locale;
+
+/**
+ * All small skill icons packed into one sprite sheet in a row, in an image compatible with the
+ * screen so Java2D can keep it cached in video memory. Icons are painted as sub-regions of the
+ * sheet.
+ */
+@Slf4j
+final class SkillIconAtlas
+{
+    private static final Skill[] SKILLS = Skill.values();
+
+    private final BufferedImage sheet;
+    private final int[] offsets;
+    private final int[] widths;
+    private final int[] heights;
+
+    private SkillIconAtlas(BufferedImage sheet, int[] offsets, int[] widths, int[] heights)
+    {
+        this.sheet = sheet;
+        this.offsets = offsets;
+        this.widths = widths;
+        this.heights = heights;
+    }
+
+    /**
+     * Decodes every icon and packs them into a sheet. Does I/O, so call it off the EDT.
+     */
+    static SkillIconAtlas build()
+    {
+        BufferedImage[] images = new BufferedImage[SKILLS.length];
+        int[] offsets = new int[SKILLS.length];
+        int[] widths = new int[SKILLS.length];
+        int[] heights = new int[SKILLS.length];
+        int width = 0;
+        int height = 0;
+
+        for (Skill skill : SKILLS)
+        {
+            if (skill == Skill.OVERALL)
+            {
+                continue;
+            }
+
+            try
+            {
+                String iconPath = "/skill_icons_small/" + skill.getName().toLowerCase(Locale.ROOT) + ".png";
+                BufferedImage icon = ImageUtil.loadImageResource(SkillIconAtlas.class, iconPath);
+                if (icon != null)
+                {
+                    int i = skill.ordinal();
+                    images[i] = icon;
+                    offsets[i] = width;
+                    widths[i] = icon.getWidth();
+                    heights[i] = icon.getHeight();
+                    width += icon.getWidth();
+                    height = Math.max(height, icon.getHeight());
+                }
+            }
+            catch (Exception e)
+            {
+                log.debug("Could not load icon for skill: {}", skill.getName());
+            }
+        }
+
+        BufferedImage sheet = createCompatibleImage(Math.max(1, width), Math.max(1, height));
+        Graphics2D g = sheet.createGraphics();
+        try
+        {
+            for (int i = 0; i < images.length; i++)
+            {
+                if (images[i] != null)
+                {
+                    g.drawImage(images[i], offsets[i], 0, null);
+                }
+            }
+        }
+        finally
+        {
+            g.dispose();
+        }
+
+        return new SkillIconAtlas(sheet, offsets, widths, heights);
+    }
+
+    private static BufferedImage createCompatibleImage(int width, int height)
+    {
+        if (!GraphicsEnvironment.isHeadless())
+        {
+            GraphicsConfiguration gc = GraphicsEnvironment.getLocalGraphicsEnvironment()
+                .getDefaultScreenDevice().getDefaultConfiguration();
+            return gc.createCompatibleImage(width, height, Transparency.TRANSLUCENT);
+        }
+        return new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+    }
+
+    boolean has(Skill skill)
+    {
+        return widths[skill.ordinal()] > 0;
+    }
+
+    int getWidth(Skill skill)
+    {
+        return widths[skill.ordinal()];
+    }
+
+    int getHeight(Skill skill)
+    {
+        return heights[skill.ordinal()];
+    }
+
+    /**
+     * Draws the skill's icon with its top left corner at x, y. Does nothing for skills without
+     * an icon.
+     */
+    void draw(Graphics g, Skill skill, int x, int y)
+    {
+        draw(g, skill.ordinal(), x, y);
+    }
+
+    private void draw(Graphics g, int i, int x, int y)
+    {
+        int w = widths[i];
+        if (w == 0)
+        {
+            return;
+        }
+
+        int sx = offsets[i];
+        g.drawImage(sheet, x, y, x + w, y + heights[i], sx, 0, sx + w, heights[i], null);
+    }
+}
@@ -0,0 +1,349 @@
+package com.helpmotivation;
+
+import net.runelite.api.Skill;
+import net.runelite.client.ui.ColorScheme;
+import net.runelite.client.ui.FontManager;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.text.NumberFormat;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * The sidebar's skill list as a single custom-painted component. Rows are flyweights holding the
+ * values and pre-formatted strings of one skill; painting draws them directly and hover is
+ * resolved by hit-testing the mouse position, so no child components are laid out at all.
+ * Updates repaint only the rows whose values changed, and only revalidate when the row count does.
+ */
+class SkillListView extends JComponent
+{
+    static final int SKILL_COLUMN_WIDTH = 30;
+    static final int LEVEL_COLUMN_WIDTH = 35;
+    static final int RANK_COLUMN_WIDTH = 70;
+    private static final int ROW_HEIGHT = 29;
+
+    private static final int EMPTY_HEIGHT = 60;
+    private static final String EMPTY_TEXT = "Log in to see your skills";
+
+    static final Color ODD_ROW = new Color(44, 44, 44);
+    static final Color EVEN_ROW = ColorScheme.DARK_GRAY_COLOR;
+
+    static final NumberFormat RANK_FORMAT = NumberFormat.getNumberInstance(Locale.US);
+
+    private final Map<Skill, Row> rowsBySkill = new EnumMap<>(Skill.class);
+    private final List<Row> rows = new ArrayList<>();
+    private SkillIconAtlas iconAtlas;
+    private int hoveredRow = -1;
+
+    SkillListView()
+    {
+        setOpaque(true);
+        setBackground(ColorScheme.DARK_GRAY_COLOR);
+        setFont(FontManager.getRunescapeFont());
+        ToolTipManager.sharedInstance().registerComponent(this);
+
+        MouseAdapter hover = new MouseAdapter()
+        {
+            @Override
+            public void mouseMoved(MouseEvent e)
+            {
+                setHoveredRow(rowAt(e.getY()));
+            }
+
+            @Override
+            public void mouseExited(MouseEvent e)
+            {
+                setHoveredRow(-1);
+            }
+        };
+        addMouseListener(hover);
+        addMouseMotionListener(hover);
+    }
+
+    /**
+     * Sets the icons to paint once they have loaded; rows are drawn without icons until then.
+     */
+    void setIconAtlas(SkillIconAtlas iconAtlas)
+    {
+        this.iconAtlas = iconAtlas;
+        repaint();
+    }
+
+    /**
+     * Replaces the shown skills. Null or empty shows the logged-out placeholder.
+     */
+    void setSkills(List<HelpMotivationPlugin.SkillData> skills)
+    {
+        int count = skills == null ? 0 : skills.size();
+        boolean sizeChanged = count != rows.size();
+
+        for (int i = 0; i < count; i++)
+        {
+            HelpMotivationPlugin.SkillData skillData = skills.get(i);
+            Row row = rowsBySkill.computeIfAbsent(skillData.getSkill(), Row::new);
+
+            boolean moved = i >= rows.size() || rows.get(i) != row;
+            if (i < rows.size())
+            {
+                rows.set(i, row);
+            }
+            else
+            {
+                rows.add(row);
+            }
+
+            if (row.update(skillData) || moved)
+            {
+                repaintRow(i);
+            }
+        }
+
+        while (rows.size() > count)
+        {
+            rows.remove(rows.size() - 1);
+        }
+
+        if (sizeChanged)
+        {
+            if (hoveredRow >= count)
+            {
+                hoveredRow = -1;
+            }
+            revalidate();
+            repaint();
+        }
+    }
+
+    @Override
+    public Dimension getPreferredSize()
+    {
+        return new Dimension(0, rows.isEmpty() ? EMPTY_HEIGHT : rows.size() * ROW_HEIGHT);
+    }
+
+    @Override
+    public String getToolTipText(MouseEvent event)
+    {
+        int index = rowAt(event.getY());
+        return index >= 0 ? rows.get(index).tooltip : null;
+    }
+
+    @Override
+    protected void paintComponent(Graphics g)
+    {
+        Graphics2D g2 = (Graphics2D) g;
+        g2.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_OFF);
+
+        int width = getWidth();
+        g2.setColor(getBackground());
+        g2.fillRect(0, 0, width, getHeight());
+
+        if (rows.isEmpty())
+        {
+            g2.setFont(getFont());
+            g2.setColor(Color.GRAY);
+            FontMetrics metrics = g2.getFontMetrics();
+            g2.drawString(EMPTY_TEXT, (width - metrics.stringWidth(EMPTY_TEXT)) / 2,
+                (EMPTY_HEIGHT - metrics.getHeight()) / 2 + metrics.getAscent());
+            return;
+        }
+
+        // Only rows intersecting the clip are painted; single-row repaints touch a single row
+        Rectangle clip = g2.getClipBounds();
+        int first = clip == null ? 0 : Math.max(0, clip.y / ROW_HEIGHT);
+        int last = clip == null ? rows.size() - 1 : Math.min(rows.size() - 1, (clip.y + clip.height - 1) / ROW_HEIGHT);
+
+        Font font = getFont();
+        Font smallFont = FontManager.getRunescapeSmallFont();
+        FontMetrics fontMetrics = g2.getFontMetrics(font);
+        FontMetrics smallMetrics = g2.getFontMetrics(smallFont);
+        int percentLeft = SKILL_COLUMN_WIDTH + LEVEL_COLUMN_WIDTH;
+        int percentWidth = Math.max(0, width - percentLeft - RANK_COLUMN_WIDTH);
+
+        for (int i = first; i <= last; i++)
+        {
+            Row row = rows.get(i);
+            int y = i * ROW_HEIGHT;
+            Color background = i % 2 == 1 ? ODD_ROW : EVEN_ROW;
+            g2.setColor(i == hoveredRow ? background.darker() : background);
+            g2.fillRect(0, y, width, ROW_HEIGHT);
+
+            if (iconAtlas != null && iconAtlas.has(row.skill))
+            {
+                int iconX = 4 + (SKILL_COLUMN_WIDTH - 4 - iconAtlas.getWidth(row.skill)) / 2;
+                iconAtlas.draw(g2, row.skill, iconX, y + (ROW_HEIGHT - iconAtlas.getHeight(row.skill)) / 2);
+            }
+
+            int baseline = y + (ROW_HEIGHT - fontMetrics.getHeight()) / 2 + fontMetrics.getAscent();
+            g2.setFont(font);
+            g2.setColor(Color.WHITE);
+            g2.drawString(row.levelText, SKILL_COLUMN_WIDTH + 4, baseline);
+
+            int smallBaseline = y + (ROW_HEIGHT - smallMetrics.getHeight()) / 2 + smallMetrics.getAscent();
+            g2.setColor(ColorScheme.LIGHT_GRAY_COLOR);
+            if (row.rateText.isEmpty())
+            {
+                g2.drawString(row.percentText, percentLeft + (percentWidth - fontMetrics.stringWidth(row.percentText)) / 2, baseline);
+            }
+            else
+            {
+                // Percentage above the session rate, both in the small font to fit the row
+                int top = y + (ROW_HEIGHT - 2 * smallMetrics.getHeight()) / 2 + smallMetrics.getAscent();
+                g2.setFont(smallFont);
+                g2.drawString(row.percentText, percentLeft + (percentWidth - smallMetrics.stringWidth(row.percentText)) / 2, top);
+                g2.setColor(ColorScheme.PROGRESS_COMPLETE_COLOR);
+                g2.drawString(row.rateText, percentLeft + (percentWidth - smallMetrics.stringWidth(row.rateText)) / 2,
+                    top + smallMetrics.getHeight());
+            }
+
+            g2.setFont(smallFont);
+            g2.setColor(row.rank > 0 ? ColorScheme.BRAND_ORANGE : Color.GRAY);
+            if (row.rankDeltaText.isEmpty())
+            {
+                g2.drawString(row.rankText, width - 5 - smallMetrics.stringWidth(row.rankText), smallBaseline);
+            }
+            else
+            {
+                // Rank change since the session's first snapshot, under the rank
+                int top = y + (ROW_HEIGHT - 2 * smallMetrics.getHeight()) / 2 + smallMetrics.getAscent();
+                g2.drawString(row.rankText, width - 5 - smallMetrics.stringWidth(row.rankText), top);
+                g2.setColor(row.rankDelta > 0 ? ColorScheme.PROGRESS_COMPLETE_COLOR : ColorScheme.PROGRESS_ERROR_COLOR);
+                g2.drawString(row.rankDeltaText, width - 5 - smallMetrics.stringWidth(row.rankDeltaText),
+                    top + smallMetrics.getHeight());
+            }
+        }
+    }
+
+    private int rowAt(int y)
+    {
+        int index = y / ROW_HEIGHT;
+        return y >= 0 && index < rows.size() ? index : -1;
+    }
+
+    private void setHoveredRow(int index)
+    {
+        if (index == hoveredRow)
+        {
+            return;
+        }
+
+        repaintRow(hoveredRow);
+        hoveredRow = index;
+        repaintRow(index);
+    }
+
+    private void repaintRow(int index)
+    {
+        if (index >= 0)
+        {
+            repaint(0, index * ROW_HEIGHT, getWidth(), ROW_HEIGHT);
+        }
+    }
+
+    /**
+     * Values shown for one skill. Strings are formatted when a value changes rather than on
+     * every paint.
+     */
+    private static class Row
+    {
+        private final Skill skill;
+        private final String skillName;
+
+        private int level = -1;
+        private double percent = -1;
+        private int rank = Integer.MIN_VALUE;
+        private long xpPerHour = -1;
+        private int rankDelta = Integer.MIN_VALUE;
+
+        private String levelText = "";
+        private String percentText = "";
+        private String rateText = "";
+        private String rankText = "";
+        private String rankDeltaText = "";
+        private String tooltip;
+
+        Row(Skill skill)
+        {
+            this.skill = skill;
+            this.skillName = SkillMapping.getDisplayName(skill);
+        }
+
+        /**
+         * @return true if anything visible changed
+         */
+        boolean update(HelpMotivationPlugin.SkillData skillData)
+        {
+            boolean changed = false;
+
+            if (skillData.getLevel() != level)
+            {
+                level = skillData.getLevel();
+                levelText = String.valueOf(level);
+                changed = true;
+            }
+
+            double newPercent = skillData.getPercentTo99();
+            if (newPercent != percent)
+            {
+                percent = newPercent;
+                percentText = String.format("%.1f%%", percent);
+                changed = true;
+            }
+
+            if (skillData.getXpPerHour() != xpPerHour)
+            {
+                xpPerHour = skillData.getXpPerHour();
+                rateText = xpPerHour > 0 ? formatRate(xpPerHour) : "";
+                changed = true;
+            }
+
+            if (changed)
+            {
+                StringBuilder sb = new StringBuilder(64);
+                sb.append(skillName).append(" - Level ").append(level).append(" - ")
+                    .append(String.format("%.1f%%", percent)).append(" to 99");
+                long millisTo99 = skillData.getMillisTo99();
+                if (millisTo99 >= 0)
+                {
+                    sb.append(" - ").append(RANK_FORMAT.format(xpPerHour)).append(" XP/h, 99 in ");
+                    XpRateTracker.appendDuration(sb, millisTo99);
+                }
+                tooltip = sb.toString();
+            }
+
+            if (skillData.getRank() != rank)
+            {
+                rank = skillData.getRank();
+                rankText = rank > 0 ? RANK_FORMAT.format(rank) : "--";
+                changed = true;
+            }
+
+            if (skillData.getRankDelta() != rankDelta)
+            {
+                rankDelta = skillData.getRankDelta();
+                rankDeltaText = rankDelta == 0 ? "" : (rankDelta > 0 ? "+" : "-") + RANK_FORMAT.format(Math.abs((long) rankDelta));
+                changed = true;
+            }
+
+            return changed;
+        }
+
+        private static String formatRate(long xpPerHour)
+        {
+            if (xpPerHour >= 1_000_000)
+            {
+                return String.format("%.1fm/h", xpPerHour / 1_000_000.0);
+            }
+            if (xpPerHour >= 1_000)
+            {
+                return String.format("%.1fk/h", xpPerHour / 1_000.0);
+            }
+            return xpPerHour + "/h";
+        }
+    }
+}
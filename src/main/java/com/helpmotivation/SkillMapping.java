@@ -0,0 +1,51 @@
+package com.helpmotivation;
+
+import net.runelite.api.Skill;
+import net.runelite.client.hiscore.HiscoreSkill;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Immutable {@link Skill} to {@link HiscoreSkill} and display name tables, resolved once when the
+ * class is loaded and indexed by skill ordinal. Skills with no hiscore entry map to null.
+ */
+final class SkillMapping
+{
+    private static final HiscoreSkill[] HISCORE_SKILLS = new HiscoreSkill[Skill.values().length];
+    private static final String[] DISPLAY_NAMES = new String[Skill.values().length];
+
+    static
+    {
+        Map<String, HiscoreSkill> byName = new HashMap<>();
+        for (HiscoreSkill hiscoreSkill : HiscoreSkill.values())
+        {
+            byName.put(hiscoreSkill.name(), hiscoreSkill);
+        }
+
+        for (Skill skill : Skill.values())
+        {
+            HISCORE_SKILLS[skill.ordinal()] = byName.get(skill.name());
+
+            String name = skill.getName();
+            DISPLAY_NAMES[skill.ordinal()] = name.substring(0, 1).toUpperCase() + name.substring(1).toLowerCase();
+        }
+    }
+
+    private SkillMapping()
+    {
+    }
+
+    static HiscoreSkill toHiscoreSkill(Skill skill)
+    {
+        return HISCORE_SKILLS[skill.ordinal()];
+    }
+
+    /**
+     * The skill's name as shown to the player, e.g. {@code Runecraft}.
+     */
+    static String getDisplayName(Skill skill)
+    {
+        return DISPLAY_NAMES[skill.ordinal()];
+    }
+}
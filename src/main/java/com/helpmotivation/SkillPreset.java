@@ -0,0 +1,31 @@
+package com.helpmotivation;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import net.runelite.api.Skill;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Common account builds, each excluding the skills that build deliberately leaves untrained.
+ */
+@Getter
+@RequiredArgsConstructor
+public enum SkillPreset
+{
+    NONE("None", EnumSet.noneOf(Skill.class)),
+    PURE("Pure", EnumSet.of(Skill.ATTACK, Skill.STRENGTH, Skill.DEFENCE, Skill.RANGED, Skill.MAGIC, Skill.PRAYER)),
+    ONE_DEFENCE("1 Defence", EnumSet.of(Skill.DEFENCE)),
+    SKILLER("Skiller", EnumSet.of(Skill.ATTACK, Skill.STRENGTH, Skill.DEFENCE, Skill.HITPOINTS, Skill.RANGED,
+        Skill.MAGIC, Skill.PRAYER));
+
+    private final String name;
+    private final Set<Skill> excluded;
+
+    @Override
+    public String toString()
+    {
+        return name;
+    }
+}
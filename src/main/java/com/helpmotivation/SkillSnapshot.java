@@ -0,0 +1,70 @@
+package com.helpmotivation;
+
+import lombok.Getter;
+import net.runelite.api.Skill;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Immutable copy of the local player's levels and experience, published by {@link SkillTracker}
+ * after every change. Any thread can read a snapshot without locking or touching the client,
+ * and every value read from one snapshot is consistent with the others.
+ */
+final class SkillSnapshot
+{
+    static final SkillSnapshot EMPTY = new SkillSnapshot(0, new int[Skill.values().length],
+        new int[Skill.values().length], new Skill[0]);
+
+    /**
+     * Incremented whenever any tracked level or experience changes.
+     */
+    @Getter
+    private final long version;
+
+    private final int[] levels;
+    private final int[] xp;
+    private final Skill[] non99;
+
+    SkillSnapshot(long version, int[] levels, int[] xp, Skill[] non99)
+    {
+        this.version = version;
+        this.levels = levels;
+        this.xp = xp;
+        this.non99 = non99;
+    }
+
+    int getLevel(Skill skill)
+    {
+        return levels[skill.ordinal()];
+    }
+
+    int getXp(Skill skill)
+    {
+        return xp[skill.ordinal()];
+    }
+
+    /**
+     * The skill most in need of attention under the active {@link PriorityStrategy}.
+     */
+    Optional<Skill> getTopSkill()
+    {
+        return non99.length == 0 ? Optional.empty() : Optional.of(non99[0]);
+    }
+
+    /**
+     * The tracked skills below 99, in priority order. The list and its entries are new on every call,
+     * so callers may fill in ranks and rates.
+     */
+    List<HelpMotivationPlugin.SkillData> getNon99Skills()
+    {
+        List<HelpMotivationPlugin.SkillData> skills = new ArrayList<>(non99.length);
+        for (Skill skill : non99)
+        {
+            int i = skill.ordinal();
+            skills.add(new HelpMotivationPlugin.SkillData(skill, levels[i], xp[i], -1));
+        }
+        return skills;
+    }
+}
@@ -0,0 +1,257 @@
+package com.helpmotivation;
+
+import net.runelite.api.Skill;
+
+import java.util.Arrays;
+
+/**
+ * Levels and experience of the local player, kept up to date from {@code StatChanged} events.
+ * Every non-99 skill has a score from the active {@link PriorityStrategy}; a change to one skill
+ * only rescores that skill, and the priority order is taken from the scores with a bounded heap.
+ * Every change publishes a new {@link SkillSnapshot}; readers only ever see those, through a
+ * volatile reference.
+ */
+class SkillTracker
+{
+    private static final int MAX_LEVEL = 99;
+    private static final Skill[] SKILLS = Skill.values();
+
+    private final int[] levels = new int[SKILLS.length];
+    private final int[] xp = new int[SKILLS.length];
+    private final boolean[] known = new boolean[SKILLS.length];
+    private final int[] ranks = new int[SKILLS.length];
+    private final long[] xpRates = new long[SKILLS.length];
+    private final int[] goals = new int[SKILLS.length];
+
+    private final long[] scores = new long[SKILLS.length];
+    private final boolean[] eligible = new boolean[SKILLS.length];
+    private final int[] heap = new int[SKILLS.length];
+
+    private SkillFilter filter = SkillFilter.NONE;
+    private PriorityStrategy strategy = PriorityStrategy.LOWEST_LEVEL;
+    private Skill[] ordered = new Skill[0];
+
+    private long version;
+
+    private volatile SkillSnapshot snapshot = SkillSnapshot.EMPTY;
+
+    SkillTracker()
+    {
+        Arrays.fill(ranks, -1);
+    }
+
+    synchronized void update(Skill skill, int level, int experience)
+    {
+        if (skill == Skill.OVERALL)
+        {
+            return;
+        }
+
+        int i = skill.ordinal();
+        if (known[i] && levels[i] == level && xp[i] == experience)
+        {
+            return;
+        }
+
+        version++;
+        levels[i] = level;
+        xp[i] = experience;
+        known[i] = true;
+
+        rescore(i);
+        publish();
+    }
+
+    /**
+     * Records the skill's current XP rate. It is scored with the skill's next {@link #update}.
+     */
+    synchronized void setXpRate(Skill skill, long xpPerHour)
+    {
+        xpRates[skill.ordinal()] = xpPerHour;
+    }
+
+    /**
+     * Takes every skill's current rate, which decays while a skill is not trained. Only
+     * rescores when the active strategy depends on rates.
+     *
+     * @return true if a snapshot with a new order was published
+     */
+    synchronized boolean refreshXpRates(XpRateTracker rates, long now)
+    {
+        for (int i = 0; i < SKILLS.length; i++)
+        {
+            if (SKILLS[i] != Skill.OVERALL)
+            {
+                xpRates[i] = rates.getXpPerHour(SKILLS[i], now);
+            }
+        }
+
+        if (!strategy.isRateBased())
+        {
+            return false;
+        }
+
+        rescoreAll();
+        Skill[] previous = ordered;
+        publish();
+        return !Arrays.equals(previous, ordered);
+    }
+
+    /**
+     * Takes ranks from a new hiscore snapshot, or clears them when it is null. Only rescores
+     * when the active strategy depends on ranks.
+     */
+    synchronized void setRanks(HiscoreSnapshot hiscores)
+    {
+        for (Skill skill : SKILLS)
+        {
+            ranks[skill.ordinal()] = hiscores != null ? hiscores.getRank(skill) : -1;
+        }
+
+        if (strategy.isRankBased())
+        {
+            rescoreAll();
+            publish();
+        }
+    }
+
+    /**
+     * @param goalLevels target level per skill ordinal, 0 for none
+     */
+    synchronized void setStrategy(PriorityStrategy strategy, int[] goalLevels)
+    {
+        this.strategy = strategy;
+        System.arraycopy(goalLevels, 0, goals, 0, goals.length);
+        rescoreAll();
+        publish();
+    }
+
+    synchronized void setFilter(SkillFilter filter)
+    {
+        this.filter = filter;
+        rescoreAll();
+        publish();
+    }
+
+    synchronized void reset()
+    {
+        version++;
+        Arrays.fill(levels, 0);
+        Arrays.fill(xp, 0);
+        Arrays.fill(known, false);
+        Arrays.fill(ranks, -1);
+        Arrays.fill(xpRates, 0);
+        Arrays.fill(eligible, false);
+        publish();
+    }
+
+    /**
+     * The latest published state. Safe to call from any thread.
+     */
+    SkillSnapshot getSnapshot()
+    {
+        return snapshot;
+    }
+
+    private void publish()
+    {
+        ordered = order();
+        snapshot = new SkillSnapshot(version, levels.clone(), xp.clone(), ordered);
+    }
+
+    private void rescoreAll()
+    {
+        for (int i = 0; i < SKILLS.length; i++)
+        {
+            rescore(i);
+        }
+    }
+
+    private void rescore(int i)
+    {
+        eligible[i] = known[i] && levels[i] < MAX_LEVEL && xp[i] >= 0 && !filter.excludes(i);
+        if (eligible[i])
+        {
+            scores[i] = strategy.score(levels[i], xp[i], ranks[i], xpRates[i], goals[i]);
+        }
+    }
+
+    /**
+     * Eligible skills, lowest score first. Skills are pushed through a max-heap bounded to the
+     * eligible count, which is then drained from the back.
+     */
+    private Skill[] order()
+    {
+        int size = 0;
+        for (int i = 0; i < SKILLS.length; i++)
+        {
+            if (eligible[i])
+            {
+                heap[size] = i;
+                siftUp(size++);
+            }
+        }
+
+        Skill[] ordered = new Skill[size];
+        for (int n = size; n > 0; n--)
+        {
+            ordered[n - 1] = SKILLS[heap[0]];
+            heap[0] = heap[n - 1];
+            siftDown(0, n - 1);
+        }
+        return ordered;
+    }
+
+    private void siftUp(int index)
+    {
+        while (index > 0)
+        {
+            int parent = (index - 1) >>> 1;
+            if (!after(heap[index], heap[parent]))
+            {
+                return;
+            }
+            swap(index, parent);
+            index = parent;
+        }
+    }
+
+    private void siftDown(int index, int size)
+    {
+        while (true)
+        {
+            int largest = index;
+            int left = 2 * index + 1;
+            int right = left + 1;
+            if (left < size && after(heap[left], heap[largest]))
+            {
+                largest = left;
+            }
+            if (right < size && after(heap[right], heap[largest]))
+            {
+                largest = right;
+            }
+            if (largest == index)
+            {
+                return;
+            }
+            swap(index, largest);
+            index = largest;
+        }
+    }
+
+    /**
+     * Whether skill a comes after skill b in priority order.
+     */
+    private boolean after(int a, int b)
+    {
+        return scores[a] != scores[b] ? scores[a] > scores[b] : a > b;
+    }
+
+    private void swap(int i, int j)
+    {
+        int tmp = heap[i];
+        heap[i] = heap[j];
+        heap[j] = tmp;
+    }
+}
@@ -0,0 +1,85 @@
+package com.helpmotivation;
+
+import lombok.Getter;
+import net.runelite.api.Skill;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-skill rank and XP changes between two snapshots of the same player, computed in one pass
+ * over their primitive arrays by {@link HiscoreSnapshot#diffSince(HiscoreSnapshot)}. Rank deltas
+ * are positive when the player climbed; skills unranked in either snapshot have no delta.
+ */
+final class SnapshotDiff
+{
+    private static final Skill[] SKILLS = Skill.values();
+
+    /**
+     * When the earlier snapshot was fetched.
+     */
+    @Getter
+    private final long since;
+
+    private final int[] rankDeltas;
+    private final long[] xpDeltas;
+
+    SnapshotDiff(long since, int[] rankDeltas, long[] xpDeltas)
+    {
+        this.since = since;
+        this.rankDeltas = rankDeltas;
+        this.xpDeltas = xpDeltas;
+    }
+
+    int getRankDelta(Skill skill)
+    {
+        return rankDeltas[skill.ordinal()];
+    }
+
+    long getXpDelta(Skill skill)
+    {
+        return xpDeltas[skill.ordinal()];
+    }
+
+    /**
+     * The skill whose rank moved the most in either direction, ignoring Overall and the skills
+     * the filter excludes, or null if no rank changed.
+     */
+    Skill getLargestMover(SkillFilter filter)
+    {
+        Skill mover = null;
+        int largest = 0;
+        for (Skill skill : SKILLS)
+        {
+            int delta = Math.abs(rankDeltas[skill.ordinal()]);
+            if (delta > largest && skill != Skill.OVERALL && !filter.excludes(skill))
+            {
+                largest = delta;
+                mover = skill;
+            }
+        }
+        return mover;
+    }
+
+    /**
+     * Appends how long ago the earlier snapshot was taken, such as {@code since yesterday} or
+     * {@code in the last 3h 20m}.
+     */
+    void appendPeriod(StringBuilder sb, long now)
+    {
+        long age = Math.max(0, now - since);
+        long days = TimeUnit.MILLISECONDS.toDays(age);
+        if (days == 0)
+        {
+            sb.append("in the last ");
+            XpRateTracker.appendDuration(sb, age);
+        }
+        else if (days == 1)
+        {
+            sb.append("since yesterday");
+        }
+        else
+        {
+            sb.append("in the last ").append(days).append(" days");
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.helpmotivation;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token bucket rate limiter. Holds up to {@code capacity} tokens, refilled continuously at a
+ * fixed rate, so short bursts are allowed while the sustained rate stays bounded.
+ */
+class TokenBucket
+{
+    private final int capacity;
+    private final long nanosPerToken;
+
+    private double tokens;
+    private long lastRefill;
+
+    TokenBucket(int capacity, long refillPeriod, TimeUnit unit)
+    {
+        this.capacity = capacity;
+        this.nanosPerToken = unit.toNanos(refillPeriod);
+        this.tokens = capacity;
+        this.lastRefill = System.nanoTime();
+    }
+
+    /**
+     * Takes a token if one is available.
+     *
+     * @return false if the caller is over the rate limit
+     */
+    synchronized boolean tryAcquire()
+    {
+        refill();
+        if (tokens < 1)
+        {
+            return false;
+        }
+
+        tokens--;
+        return true;
+    }
+
+    synchronized boolean hasToken()
+    {
+        refill();
+        return tokens >= 1;
+    }
+
+    /**
+     * How long until a token is available, or 0 if one is available now.
+     */
+    synchronized long nanosUntilToken()
+    {
+        refill();
+        return tokens >= 1 ? 0 : (long) Math.ceil((1 - tokens) * nanosPerToken);
+    }
+
+    private void refill()
+    {
+        long now = System.nanoTime();
+        tokens = Math.min(capacity, tokens + (double) (now - lastRefill) / nanosPerToken);
+        lastRefill = now;
+    }
+}
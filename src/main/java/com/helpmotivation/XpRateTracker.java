@@ -0,0 +1,161 @@
+package com.helpmotivation;
+
+import net.runelite.api.Experience;
+import net.runelite.api.Skill;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Session XP rates per skill. Every XP drop is recorded as a (time, xp) sample in a fixed-size ring
+ * buffer per skill, and the rate is the XP gained across the samples within the last
+ * {@link #WINDOW_MILLIS}. Samples closer together than {@link #SAMPLE_INTERVAL_MILLIS} are
+ * merged, so a burst of drops does not push older samples out of the window. All buffers are
+ * allocated up front; recording a drop allocates nothing.
+ */
+class XpRateTracker
+{
+    static final int XP_99 = Experience.getXpForLevel(Experience.MAX_REAL_LEVEL);
+
+    private static final long WINDOW_MILLIS = TimeUnit.MINUTES.toMillis(30);
+    private static final long SAMPLE_INTERVAL_MILLIS = TimeUnit.SECONDS.toMillis(10);
+    private static final long MIN_SPAN_MILLIS = TimeUnit.MINUTES.toMillis(1);
+    private static final long HOUR_MILLIS = TimeUnit.HOURS.toMillis(1);
+
+    // WINDOW_MILLIS / SAMPLE_INTERVAL_MILLIS samples, rounded up to a power of two
+    private static final int CAPACITY = 256;
+    private static final int MASK = CAPACITY - 1;
+
+    private static final int SKILL_COUNT = Skill.values().length;
+
+    private final long[] times = new long[SKILL_COUNT * CAPACITY];
+    private final long[] xp = new long[SKILL_COUNT * CAPACITY];
+    private final int[] heads = new int[SKILL_COUNT];
+    private final int[] counts = new int[SKILL_COUNT];
+
+    /**
+     * Records the skill's total XP at the given time. The first sample for a skill is its
+     * baseline; rates only reflect XP gained after it.
+     */
+    synchronized void record(Skill skill, int totalXp, long now)
+    {
+        if (skill == Skill.OVERALL)
+        {
+            return;
+        }
+
+        int s = skill.ordinal();
+        int base = s * CAPACITY;
+        int count = counts[s];
+
+        if (count > 0)
+        {
+            int last = base + ((heads[s] + count - 1) & MASK);
+            if (xp[last] == totalXp)
+            {
+                return;
+            }
+
+            // A drop shortly after the previous one replaces it rather than taking a new slot,
+            // unless that sample is the baseline the rate is measured from
+            if (count > 1 && now - times[last] < SAMPLE_INTERVAL_MILLIS)
+            {
+                xp[last] = totalXp;
+                return;
+            }
+        }
+
+        int slot;
+        if (count == CAPACITY)
+        {
+            slot = heads[s];
+            heads[s] = (heads[s] + 1) & MASK;
+        }
+        else
+        {
+            slot = (heads[s] + count) & MASK;
+            counts[s] = count + 1;
+        }
+
+        times[base + slot] = now;
+        xp[base + slot] = totalXp;
+    }
+
+    /**
+     * XP per hour over the last {@link #WINDOW_MILLIS}, or 0 if there is not enough data.
+     */
+    synchronized long getXpPerHour(Skill skill, long now)
+    {
+        int s = skill.ordinal();
+        int count = counts[s];
+        if (count < 2)
+        {
+            return 0;
+        }
+
+        int base = s * CAPACITY;
+        int head = heads[s];
+        long latestXp = xp[base + ((head + count - 1) & MASK)];
+
+        // The oldest sample still inside the window. If every gain in the window came after a
+        // quiet period, the last sample before the window anchors the rate instead.
+        int first = 0;
+        while (first < count - 1 && times[base + ((head + first + 1) & MASK)] <= now - WINDOW_MILLIS)
+        {
+            first++;
+        }
+
+        int oldest = base + ((head + first) & MASK);
+        long start = Math.max(times[oldest], now - WINDOW_MILLIS);
+        long span = now - start;
+        if (span < MIN_SPAN_MILLIS)
+        {
+            return 0;
+        }
+
+        return (latestXp - xp[oldest]) * HOUR_MILLIS / span;
+    }
+
+    synchronized void reset()
+    {
+        Arrays.fill(heads, 0);
+        Arrays.fill(counts, 0);
+    }
+
+    /**
+     * Milliseconds until {@code xp} reaches level 99 at the given rate, or -1 if it never will.
+     */
+    static long millisTo99(int xp, long xpPerHour)
+    {
+        if (xpPerHour <= 0)
+        {
+            return -1;
+        }
+        return Math.max(0, XP_99 - (long) xp) * HOUR_MILLIS / xpPerHour;
+    }
+
+    /**
+     * Appends a duration as its two largest units, such as {@code 3d 4h}, {@code 12h 30m} or
+     * {@code 45m}.
+     */
+    static void appendDuration(StringBuilder sb, long millis)
+    {
+        long minutes = Math.max(1, TimeUnit.MILLISECONDS.toMinutes(millis));
+        long days = minutes / (24 * 60);
+        long hours = minutes / 60 % 24;
+        minutes %= 60;
+
+        if (days > 0)
+        {
+            sb.append(days).append("d ").append(hours).append('h');
+        }
+        else if (hours > 0)
+        {
+            sb.append(hours).append("h ").append(minutes).append('m');
+        }
+        else
+        {
+            sb.append(minutes).append('m');
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.helpmotivation;
+
+import net.runelite.api.Skill;
+import net.runelite.client.hiscore.HiscoreEndpoint;
+import net.runelite.client.hiscore.HiscoreResult;
+import net.runelite.client.hiscore.HiscoreSkill;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Base64;
+import java.util.EnumMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+public class HiscoreSnapshotTest
+{
+    private static final String PLAYER = "Zezima";
+    private static final long FETCHED_AT = 1_700_000_000_000L;
+
+    @Test
+    public void roundTrips()
+    {
+        Map<HiscoreSkill, net.runelite.client.hiscore.Skill> skills = new EnumMap<>(HiscoreSkill.class);
+        skills.put(HiscoreSkill.ATTACK, new net.runelite.client.hiscore.Skill(12_345, 99, 13_034_431));
+        skills.put(HiscoreSkill.RUNECRAFT, new net.runelite.client.hiscore.Skill(1_500_000, 44, 55_000));
+        skills.put(HiscoreSkill.HUNTER, new net.runelite.client.hiscore.Skill(-1, 1, -1));
+
+        HiscoreResult result = new HiscoreResult();
+        result.setPlayer(PLAYER);
+        result.setSkills(skills);
+        HiscoreSnapshot snapshot = HiscoreSnapshot.from(PLAYER, HiscoreEndpoint.IRONMAN, result, FETCHED_AT);
+
+        HiscoreSnapshot decoded = HiscoreSnapshot.decode(snapshot.encode());
+        assertNotNull(decoded);
+        assertEquals(PLAYER, decoded.getPlayerName());
+        assertEquals(HiscoreEndpoint.IRONMAN, decoded.getEndpoint());
+        assertEquals(FETCHED_AT, decoded.getFetchedAt());
+        for (Skill skill : Skill.values())
+        {
+            assertEquals(skill.getName(), snapshot.getRank(skill), decoded.getRank(skill));
+            assertEquals(skill.getName(), snapshot.getXp(skill), decoded.getXp(skill));
+            if (snapshot.getRank(skill) != -1)
+            {
+                assertEquals(skill.getName(), snapshot.getLevel(skill), decoded.getLevel(skill));
+            }
+        }
+
+        assertEquals(12_345, decoded.getRank(Skill.ATTACK));
+        assertEquals(99, decoded.getLevel(Skill.ATTACK));
+        assertEquals(13_034_431, decoded.getXp(Skill.ATTACK));
+        assertEquals(1_500_000, decoded.getRank(Skill.RUNECRAFT));
+        assertEquals(-1, decoded.getRank(Skill.DEFENCE));
+    }
+
+    @Test
+    public void version1DecodesAsNormal() throws IOException
+    {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeByte(1);
+        out.writeUTF(PLAYER);
+        out.writeLong(FETCHED_AT);
+        out.writeByte(2);
+        out.writeUTF("ATTACK");
+        out.writeInt(5_000);
+        out.writeShort(70);
+        out.writeLong(737_627);
+        // Skills no longer in the enum are skipped
+        out.writeUTF("CONSTRUCTION_OLD");
+        out.writeInt(1);
+        out.writeShort(1);
+        out.writeLong(0);
+        out.flush();
+
+        HiscoreSnapshot decoded = HiscoreSnapshot.decode(Base64.getEncoder().encodeToString(bytes.toByteArray()));
+        assertNotNull(decoded);
+        assertEquals(HiscoreEndpoint.NORMAL, decoded.getEndpoint());
+        assertEquals(PLAYER, decoded.getPlayerName());
+        assertEquals(FETCHED_AT, decoded.getFetchedAt());
+        assertEquals(5_000, decoded.getRank(Skill.ATTACK));
+        assertEquals(70, decoded.getLevel(Skill.ATTACK));
+        assertEquals(737_627, decoded.getXp(Skill.ATTACK));
+        assertEquals(-1, decoded.getRank(Skill.DEFENCE));
+    }
+
+    @Test
+    public void unreadableInputDecodesAsNull()
+    {
+        assertNull(HiscoreSnapshot.decode(null));
+        assertNull(HiscoreSnapshot.decode(""));
+        assertNull(HiscoreSnapshot.decode("not base64!"));
+        assertNull(HiscoreSnapshot.decode(Base64.getEncoder().encodeToString(new byte[]{3})));
+    }
+}
@@ -0,0 +1,68 @@
+package com.helpmotivation;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class QuoteTemplateTest
+{
+    @Test
+    public void replacesPlaceholders()
+    {
+        QuoteContext context = context().rank(1_234_567);
+        assertEquals("Agility 52 rank 1,234,567", render("{skill} {level} rank {rank}", context));
+        assertEquals("rank 1,234,567 / 1,234,567", render("rank %d / %s", context));
+        assertEquals("unranked", render("{rank}", context()));
+    }
+
+    @Test
+    public void conditionalsFollowTheirField()
+    {
+        String template = "{?rank:ranked {rank}}{!rank:unranked}";
+        assertEquals("ranked 5,000", render(template, context().rank(5_000)));
+        assertEquals("unranked", render(template, context()));
+    }
+
+    @Test
+    public void nestedConditionals()
+    {
+        String template = "{?rank:rank {rank}{?rankDelta: ({rankDelta}){!rankWeek: this week}}.}!";
+        assertEquals("rank 1,000 (+50) this week.!", render(template, context().rank(1_000).rankDelta(50)));
+        assertEquals("rank 1,000 (-3).!", render(template, context().rank(1_000).rankDelta(-3).rankWeek(10)));
+        assertEquals("rank 1,000.!", render(template, context().rank(1_000)));
+        assertEquals("!", render(template, context().rankDelta(50)));
+    }
+
+    @Test
+    public void unterminatedConditionalsRunToTheEnd()
+    {
+        assertEquals("ranked 5", render("{?rank:ranked {rank}", context().rank(5)));
+        assertEquals("", render("{?rank:ranked {rank}", context()));
+
+        String nested = "a{?rank:b{?rankDelta:c";
+        assertEquals("abc", render(nested, context().rank(5).rankDelta(1)));
+        assertEquals("ab", render(nested, context().rank(5)));
+        assertEquals("a", render(nested, context()));
+    }
+
+    @Test
+    public void unparseableTextIsKeptLiterally()
+    {
+        QuoteContext context = context().rank(5);
+        assertEquals("{foo} {?foo:bar} {rank", render("{foo} {?foo:bar} {rank", context));
+        assertEquals("a}b 100%", render("a}b 100%", context));
+        assertEquals("{5}", render("{{rank}}", context));
+    }
+
+    private static QuoteContext context()
+    {
+        return new QuoteContext().reset("Agility", 52);
+    }
+
+    private static String render(String template, QuoteContext context)
+    {
+        StringBuilder sb = new StringBuilder();
+        QuoteTemplate.compile(template).render(sb, context);
+        return sb.toString();
+    }
+}
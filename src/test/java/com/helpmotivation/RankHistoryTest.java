@@ -0,0 +1,182 @@
+package com.helpmotivation;
+
+import net.runelite.api.Skill;
+import net.runelite.client.hiscore.HiscoreEndpoint;
+import net.runelite.client.hiscore.HiscoreResult;
+import net.runelite.client.hiscore.HiscoreSkill;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class RankHistoryTest
+{
+    private static final String PLAYER = "Zezima";
+    private static final long START = TimeUnit.DAYS.toMillis(20_000);
+    private static final long HOUR = TimeUnit.HOURS.toMillis(1);
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void samplesSurviveReopening() throws IOException
+    {
+        File directory = folder.newFolder();
+        RankHistory history = RankHistory.open(directory, PLAYER, HiscoreEndpoint.NORMAL);
+        history.record(snapshot(START, 5_000, 300));
+        history.record(snapshot(START + HOUR, 4_000, 250));
+        history.record(snapshot(START + 2 * HOUR, 3_000, 500));
+        history.close();
+
+        history = RankHistory.open(directory, PLAYER, HiscoreEndpoint.NORMAL);
+        assertEquals(1_000, history.getRankChange(Skill.ATTACK, 1, TimeUnit.HOURS));
+        assertEquals(2_000, history.getRankChange(Skill.ATTACK, 2, TimeUnit.HOURS));
+        // Rank lost, so the zig-zag encoding has to round trip a negative delta
+        assertEquals(-250, history.getRankChange(Skill.DEFENCE, 1, TimeUnit.HOURS));
+        assertEquals(-200, history.getRankChange(Skill.DEFENCE, 2, TimeUnit.HOURS));
+
+        // Deltas keep chaining from the decoded samples
+        history.record(snapshot(START + 3 * HOUR, 2_500, 400));
+        history.close();
+
+        history = RankHistory.open(directory, PLAYER, HiscoreEndpoint.NORMAL);
+        assertEquals(500, history.getRankChange(Skill.ATTACK, 1, TimeUnit.HOURS));
+        assertEquals(100, history.getRankChange(Skill.DEFENCE, 1, TimeUnit.HOURS));
+        history.close();
+    }
+
+    @Test
+    public void laddersAreKeptApart() throws IOException
+    {
+        File directory = folder.newFolder();
+        RankHistory main = RankHistory.open(directory, PLAYER, HiscoreEndpoint.NORMAL);
+        main.record(snapshot(START, 5_000, 300));
+        main.record(snapshot(START + HOUR, 4_000, 300));
+        main.close();
+
+        RankHistory seasonal = RankHistory.open(directory, PLAYER, HiscoreEndpoint.SEASONAL);
+        assertEquals(HiscoreEndpoint.SEASONAL, seasonal.getEndpoint());
+        assertEquals(0, seasonal.getRankChange(Skill.ATTACK, 1, TimeUnit.HOURS));
+        seasonal.close();
+
+        assertTrue(new File(directory, "zezima.bin").exists());
+        assertTrue(new File(directory, "zezima.seasonal.bin").exists());
+    }
+
+    @Test
+    public void unchangedSnapshotsWithinTheIntervalAreSkipped() throws IOException
+    {
+        RankHistory history = RankHistory.open(folder.newFolder(), PLAYER, HiscoreEndpoint.NORMAL);
+        history.record(snapshot(START, 5_000, 300));
+        history.record(snapshot(START + HOUR, 4_000, 300));
+        history.record(snapshot(START + HOUR + TimeUnit.MINUTES.toMillis(1), 4_000, 300));
+
+        // The skipped duplicate would otherwise be the baseline for a one minute window
+        assertEquals(1_000, history.getRankChange(Skill.ATTACK, 1, TimeUnit.MINUTES));
+        history.close();
+    }
+
+    @Test
+    public void getRankChangeNeedsTwoSamples() throws IOException
+    {
+        RankHistory history = RankHistory.open(folder.newFolder(), PLAYER, HiscoreEndpoint.NORMAL);
+        assertEquals(0, history.getRankChange(Skill.ATTACK, 7, TimeUnit.DAYS));
+
+        history.record(snapshot(START, 5_000, 300));
+        assertEquals(0, history.getRankChange(Skill.ATTACK, 7, TimeUnit.DAYS));
+        history.close();
+    }
+
+    @Test
+    public void unrankedSamplesHaveNoChange() throws IOException
+    {
+        RankHistory history = RankHistory.open(folder.newFolder(), PLAYER, HiscoreEndpoint.NORMAL);
+        history.record(snapshot(START, -1, 300));
+        history.record(snapshot(START + HOUR, 4_000, 250));
+        assertEquals(0, history.getRankChange(Skill.ATTACK, 1, TimeUnit.HOURS));
+        assertEquals(50, history.getRankChange(Skill.DEFENCE, 1, TimeUnit.HOURS));
+        history.close();
+    }
+
+    @Test
+    public void compactsWhenTheFileFills() throws IOException
+    {
+        File directory = folder.newFolder();
+        RankHistory history = RankHistory.open(directory, PLAYER, HiscoreEndpoint.NORMAL);
+
+        // 125 days of hourly samples with every skill changing, several times the file's capacity
+        int hours = 125 * 24;
+        for (int h = 0; h <= hours; h++)
+        {
+            history.record(snapshot(START + h * HOUR, 1_000_000 - h * 100, 900_000 - h * 50));
+        }
+
+        assertCompacted(history);
+        history.close();
+
+        history = RankHistory.open(directory, PLAYER, HiscoreEndpoint.NORMAL);
+        assertCompacted(history);
+
+        // Opening compacts as well, after which nothing older than 90 days is left
+        int all = history.getRankChange(Skill.ATTACK, 120, TimeUnit.DAYS);
+        assertTrue("120 day change " + all, all > 0 && all <= 90 * 24 * 100);
+        history.close();
+    }
+
+    private static void assertCompacted(RankHistory history)
+    {
+        // Recent samples are kept at full resolution
+        assertEquals(100, history.getRankChange(Skill.ATTACK, 1, TimeUnit.HOURS));
+        assertEquals(2_400, history.getRankChange(Skill.ATTACK, 24, TimeUnit.HOURS));
+
+        // Older ones are thinned to one per 6 hours, so the baseline may be up to 6 hours early
+        int month = history.getRankChange(Skill.ATTACK, 30, TimeUnit.DAYS);
+        assertTrue("30 day change " + month, month >= 720 * 100 && month <= 726 * 100);
+    }
+
+    /**
+     * A snapshot where Attack has the given rank, Defence the other, and every other skill a
+     * rank and XP derived from Attack's so that every skill changes between samples.
+     */
+    private static HiscoreSnapshot snapshot(long fetchedAt, int attackRank, int defenceRank)
+    {
+        Map<HiscoreSkill, net.runelite.client.hiscore.Skill> skills = new EnumMap<>(HiscoreSkill.class);
+        for (Skill skill : Skill.values())
+        {
+            HiscoreSkill hiscoreSkill = SkillMapping.toHiscoreSkill(skill);
+            if (hiscoreSkill == null)
+            {
+                continue;
+            }
+
+            int rank;
+            if (skill == Skill.ATTACK)
+            {
+                rank = attackRank;
+            }
+            else if (skill == Skill.DEFENCE)
+            {
+                rank = defenceRank;
+            }
+            else
+            {
+                rank = attackRank > 0 ? attackRank + skill.ordinal() * 7 : -1;
+            }
+            long xp = (fetchedAt - START) / HOUR * 10_000 + skill.ordinal();
+            skills.put(hiscoreSkill, new net.runelite.client.hiscore.Skill(rank, 50, xp));
+        }
+
+        HiscoreResult result = new HiscoreResult();
+        result.setPlayer(PLAYER);
+        result.setSkills(skills);
+        return HiscoreSnapshot.from(PLAYER, HiscoreEndpoint.NORMAL, result, fetchedAt);
+    }
+}